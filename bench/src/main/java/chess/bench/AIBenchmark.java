@@ -0,0 +1,47 @@
+package chess.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.AI;
+import chess.Board;
+import chess.Move;
+
+/**
+ * Benchmarks the AI choosing a move for the side to move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIBenchmark {
+
+	@Param({ Positions.START, Positions.KIWIPETE, Positions.MIDDLEGAME, Positions.ENDGAME })
+	public String position;
+
+	private AI ai;
+
+	@Setup
+	public void setUp() {
+		Board board = new Board(Positions.fen(position));
+		ai = new AI(board, board.isWhiteToMove(), 0);
+	}
+
+	@Benchmark
+	public Move getNextMove() {
+		return ai.getNextMove();
+	}
+}
@@ -0,0 +1,53 @@
+package chess.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.Board;
+
+/**
+ * Benchmarks giving a search thread its own copy of a position, either as a
+ * new Board or by copying into a Board the thread already has.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardCopyBenchmark {
+
+	@Param({ Positions.START, Positions.MIDDLEGAME, Positions.ENDGAME })
+	public String position;
+
+	private Board board;
+	private Board workerBoard;
+
+	@Setup
+	public void setUp() {
+		board = new Board(Positions.fen(position));
+		workerBoard = new Board();
+	}
+
+	@Benchmark
+	public Board copyConstructor() {
+		return new Board(board);
+	}
+
+	@Benchmark
+	public Board copyFrom() {
+		workerBoard.copyFrom(board);
+		return workerBoard;
+	}
+}
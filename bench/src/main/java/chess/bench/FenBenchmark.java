@@ -0,0 +1,53 @@
+package chess.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.Board;
+
+/**
+ * Benchmarks loading a position from a FEN string into an existing Board and
+ * writing the position back out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+	@Param({ Positions.START, Positions.KIWIPETE, Positions.ENDGAME })
+	public String position;
+
+	private String fen;
+	private Board board;
+
+	@Setup
+	public void setUp() {
+		fen = Positions.fen(position);
+		board = new Board(fen);
+	}
+
+	@Benchmark
+	public Board setFen() {
+		board.setFen(fen);
+		return board;
+	}
+
+	@Benchmark
+	public String toFen() {
+		return board.toFen();
+	}
+}
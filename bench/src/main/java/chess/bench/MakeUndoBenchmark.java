@@ -0,0 +1,66 @@
+package chess.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.Board;
+import chess.Move;
+
+/**
+ * Benchmarks making and undoing every legal move of the side to move, both
+ * through Move objects and as packed moves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MakeUndoBenchmark {
+
+	@Param({ Positions.START, Positions.KIWIPETE, Positions.MIDDLEGAME, Positions.ENDGAME })
+	public String position;
+
+	private Board board;
+	private ArrayList<Move> moves;
+	private int[] packedMoves;
+	private int packedMoveCount;
+
+	@Setup
+	public void setUp() {
+		board = new Board(Positions.fen(position));
+		moves = board.findAllLegalMoves(board.isWhiteToMove());
+		packedMoves = new int[Board.MAX_MOVES];
+		packedMoveCount = board.generateLegalMoves(board.isWhiteToMove(), packedMoves);
+	}
+
+	@Benchmark
+	public long makeTestMoveAndUndo() {
+		for (Move move : moves) {
+			board.makeTestMove(move);
+			board.undoMove(move);
+		}
+		return board.getHash();
+	}
+
+	@Benchmark
+	public long makeMoveAndUndoPacked() {
+		for (int i = 0; i < packedMoveCount; i++) {
+			board.makeMove(packedMoves[i]);
+			board.undoMove(packedMoves[i]);
+		}
+		return board.getHash();
+	}
+}
@@ -0,0 +1,59 @@
+package chess.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import chess.Board;
+import chess.Piece;
+
+/**
+ * Benchmarks finding the legal moves of every piece of one type for the
+ * side to move, the way the GUI and AI ask for them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+	@Param({ Positions.START, Positions.KIWIPETE, Positions.MIDDLEGAME, Positions.ENDGAME })
+	public String position;
+
+	@Param({ "PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING" })
+	public String pieceType;
+
+	private Board board;
+	private ArrayList<Piece> pieces;
+
+	@Setup
+	public void setUp() {
+		board = new Board(Positions.fen(position));
+		Piece.PieceType type = Piece.PieceType.valueOf(pieceType);
+		pieces = new ArrayList<Piece>();
+		for (Piece piece : board.isWhiteToMove() ? board.getWhitePieces() : board.getBlackPieces()) {
+			if (piece.getType() == type)
+				pieces.add(piece);
+		}
+	}
+
+	@Benchmark
+	public void findLegalMoves(Blackhole blackhole) {
+		for (Piece piece : pieces)
+			blackhole.consume(board.findLegalMoves(piece, true));
+	}
+}
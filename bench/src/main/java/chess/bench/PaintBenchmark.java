@@ -0,0 +1,58 @@
+package chess.bench;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.Board;
+import chess.ui.Game;
+import chess.ui.GraphicsController;
+
+/**
+ * Benchmarks painting the whole game window into an offscreen image.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark {
+
+	@Param({ Positions.START, Positions.MIDDLEGAME, Positions.ENDGAME })
+	public String position;
+
+	private GraphicsController graphicsController;
+	private BufferedImage image;
+
+	@Setup
+	public void setUp() {
+		GraphicsController.loadImages(this);
+		graphicsController = new GraphicsController(new Board(Positions.fen(position)));
+		graphicsController.renderTimer(Game.DEFAULT_GAME_TIME, Game.DEFAULT_GAME_TIME);
+		image = new BufferedImage(Game.WIDTH, Game.HEIGHT, BufferedImage.TYPE_INT_RGB);
+	}
+
+	@Benchmark
+	public BufferedImage paintComponent() {
+		Graphics2D graphic = image.createGraphics();
+		try {
+			graphicsController.paintComponent(graphic);
+		} finally {
+			graphic.dispose();
+		}
+		return image;
+	}
+}
@@ -0,0 +1,81 @@
+package chess.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.Board;
+import chess.ParallelSearch;
+import chess.TranspositionTable;
+
+/**
+ * Benchmarks a fixed-depth parallel search of the standard positions on
+ * different numbers of threads. Besides the searches per second, the nodes
+ * counter reports the nodes per second of all threads together, which
+ * should grow close to linearly with the threads up to the number of cores.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+	@Param({ Positions.START, Positions.KIWIPETE, Positions.MIDDLEGAME })
+	public String position;
+
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+
+	@Param({ "6" })
+	public int depth;
+
+	private TranspositionTable table;
+	private ParallelSearch search;
+
+	/**
+	 * The nodes searched, reported by JMH per second.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+		public long nodes;
+	}
+
+	@Setup
+	public void setUp() {
+		table = new TranspositionTable();
+		search = new ParallelSearch(new Board(Positions.fen(position)), table, threads);
+	}
+
+	@Setup(Level.Invocation)
+	public void clearTable() {
+		table.clear();
+	}
+
+	@TearDown
+	public void tearDown() {
+		search.shutdown();
+	}
+
+	@Benchmark
+	public int search(Counters counters) {
+		search.search(depth);
+		counters.nodes += search.getNodes();
+		return search.getBestMove();
+	}
+}
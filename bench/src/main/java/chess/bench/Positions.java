@@ -0,0 +1,40 @@
+package chess.bench;
+
+/**
+ * The positions the benchmarks are parameterized over, by name.
+ */
+public final class Positions {
+
+	public static final String START = "start";
+	public static final String KIWIPETE = "kiwipete";
+	public static final String MIDDLEGAME = "middlegame";
+	public static final String ENDGAME = "endgame";
+	public static final String CHECKMATE = "checkmate";
+
+	private Positions() {
+		// Not instantiable
+	}
+
+	/**
+	 * Returns the FEN string of the position with the given name.
+	 *
+	 * @param name One of the position names above.
+	 * @return The position in Forsyth-Edwards Notation.
+	 */
+	public static String fen(String name) {
+		switch (name) {
+			case START:
+				return "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+			case KIWIPETE:
+				return "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+			case MIDDLEGAME:
+				return "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+			case ENDGAME:
+				return "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+			case CHECKMATE:
+				return "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3";
+			default:
+				throw new IllegalArgumentException("Unknown position: " + name);
+		}
+	}
+}
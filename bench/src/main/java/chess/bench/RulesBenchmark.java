@@ -0,0 +1,59 @@
+package chess.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.Board;
+
+/**
+ * Benchmarks the whole-position queries: check, checkmate and generating
+ * every legal move into a packed move buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark {
+
+	@Param({ Positions.START, Positions.KIWIPETE, Positions.MIDDLEGAME, Positions.ENDGAME, Positions.CHECKMATE })
+	public String position;
+
+	private Board board;
+	private boolean isWhite;
+	private int[] moves;
+
+	@Setup
+	public void setUp() {
+		board = new Board(Positions.fen(position));
+		isWhite = board.isWhiteToMove();
+		moves = new int[Board.MAX_MOVES];
+	}
+
+	@Benchmark
+	public boolean isCheck() {
+		return board.isCheck(isWhite);
+	}
+
+	@Benchmark
+	public boolean isCheckMate() {
+		return board.isCheckMate(isWhite);
+	}
+
+	@Benchmark
+	public int generateLegalMoves() {
+		return board.generateLegalMoves(isWhite, moves);
+	}
+}
@@ -0,0 +1,60 @@
+package chess.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.Board;
+import chess.Search;
+import chess.TranspositionTable;
+
+/**
+ * Benchmarks a fixed-depth search of the standard positions, without the
+ * printing that AI.getNextMove() does. The transposition table is cleared
+ * before each search, so that every search starts cold.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+	@Param({ Positions.START, Positions.KIWIPETE, Positions.MIDDLEGAME, Positions.ENDGAME })
+	public String position;
+
+	@Param({ "4" })
+	public int depth;
+
+	private TranspositionTable table;
+	private Search search;
+
+	@Setup
+	public void setUp() {
+		table = new TranspositionTable();
+		search = new Search(new Board(Positions.fen(position)), table);
+	}
+
+	@Setup(Level.Invocation)
+	public void clearTable() {
+		table.clear();
+	}
+
+	@Benchmark
+	public int search() {
+		search.search(depth);
+		return search.getBestMove();
+	}
+}
@@ -1,10 +1,17 @@
+package chess;
+
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 
 public class AI {
 
+	// the search depth at difficulty 0, and the depth added per level
+	private static final int BASE_SEARCH_DEPTH = 3;
+
 	private Board board;
+	// the AI searches its own copy of the board, so that the game can draw
+	// the real board while the AI thinks
+	private Board searchBoard;
+	private ParallelSearch search;
 	private Piece pieceToMove_;
 	private ArrayList<Piece> aiPieces;
 	private ArrayList<Piece> enemyPieces_;
@@ -27,6 +34,10 @@ public class AI {
 
 		possibleMoves = new ArrayList<Move>();
 		difficulty_ = difficulty;
+		searchBoard = new Board(board);
+		// leave a processor for the event thread, which draws the board and
+		// the clock while the AI thinks
+		search = new ParallelSearch(searchBoard, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
 	}
 
 	public boolean isWhite() {
@@ -52,65 +63,93 @@ public class AI {
 		return move;
 	}
 
+	/**
+	 * Searches the current position and returns the best move for the AI,
+	 * or null if it has no legal move. The search depth grows with the
+	 * difficulty. The search runs on a copy of the board, which carries the
+	 * positions since the last capture or pawn move, so repetitions of
+	 * earlier positions are still seen. The board must not be changed until
+	 * the method returns.
+	 * 
+	 * @return The best move found.
+	 */
 	public Move getNextMove() {
-		ArrayList<Move> possibleMoves = getAllPossibleMoves();
-		Map<Move, Integer> moveValues = computeValuesForMoves(possibleMoves);
-		System.out.println("MoveValues:\n" + moveValues);
-
-		int max = Integer.MIN_VALUE;
-		Move maxMove = null;
-		for (Move move : moveValues.keySet()) {
-			if (moveValues.get(move) > max) {
-				max = moveValues.get(move);
-				maxMove = move;
-			}
-		}
-
-		System.out.println("Best move according to AI: " + maxMove);
-		return maxMove;
+		searchBoard.copyFrom(board);
+		search.search(getSearchDepth());
+		int bestMove = search.getBestMove();
+		return bestMove == PackedMove.NULL_MOVE ? null : new Move(bestMove, board);
 	}
 
-	private ArrayList<Move> getAllPossibleMoves() {
-
-		ArrayList<Move> possibleMoves = new ArrayList<Move>();
-		for (int i = 0; i < aiPieces.size(); i++) {
-			possibleMoves.addAll(board.findLegalMoves(aiPieces.get(i), true));
-		}
-
-		return possibleMoves;
+	/**
+	 * Searches the current position for as long as the clock allows and
+	 * returns the best move for the AI, or null if it has no legal move.
+	 * The search deepens until the time budget for the move runs out (see
+	 * TimeManager), so the difficulty does not limit its depth. As with
+	 * getNextMove(), the board must not be changed until the method returns.
+	 * 
+	 * @param remainingTime The time left on the AI's clock in milliseconds.
+	 * @param increment The time added to the clock after each move in
+	 *            milliseconds. increment >= 0
+	 * @return The best move found.
+	 */
+	public Move getNextMove(int remainingTime, int increment) {
+		return getNextMove(new TimeManager(remainingTime, increment));
 	}
 
-	private Map<Move, Integer> computeValuesForMoves(ArrayList<Move> possibleMoves) {
-		Map<Move, Integer> moveValues = new HashMap<Move, Integer>();
-		for (int i = 0; i < possibleMoves.size(); i++) {
-			Move move = possibleMoves.get(i);
-			System.out.println("Move: " + move);
-			board.makeTestMove(move);
-			moveValues.put(move, computeValueForBoard());
-			board.undoMove(move);
+	/**
+	 * Searches the current position within the limits of the given
+	 * TimeManager and returns the best move for the AI, or null if it has no
+	 * legal move. Stopping the TimeManager from another thread stops the
+	 * search, even if it has not started yet. As with getNextMove(), the
+	 * board must not be changed until the method returns.
+	 * 
+	 * @param timeManager The time limits for the move. May not be null.
+	 * @return The best move found.
+	 */
+	public Move getNextMove(TimeManager timeManager) {
+		if (timeManager == null) {
+			throw new IllegalArgumentException("The time manager may not be null.");
 		}
+		searchBoard.copyFrom(board);
+		search.iterativeSearch(Search.MAX_PLY, timeManager);
+		int bestMove = search.getBestMove();
+		return bestMove == PackedMove.NULL_MOVE ? null : new Move(bestMove, board);
+	}
 
-		// System.out.println(moveValues);
+	/**
+	 * Sets the number of threads the AI searches on. By default it uses one
+	 * per available processor but one, and at least one. May not be called
+	 * while the AI is thinking.
+	 * 
+	 * @param threads The number of threads to search on. threads >= 1
+	 */
+	public void setThreads(int threads) {
+		search.setThreads(threads);
+	}
 
-		return moveValues;
+	/**
+	 * Stops a search started by getNextMove() on another thread, which then
+	 * returns the best move found so far.
+	 */
+	public void stopThinking() {
+		search.stop();
 	}
 
-	private int computeValueForBoard() {
-		int value = 0;
-
-		if (board.isCheckMate(!isWhite))
-			return Integer.MAX_VALUE;
-		else {
-			value += getMaterialDifference();
-			System.out.println("Value after Material Difference: " + value);
-			//value += calculateDefensiveScore();
-			//System.out.println("Value after Defensive Score: " + value);
-			//value += calculateAttackingScore();
-			//System.out.println("Value after Attacking Score: " + value);
-			System.out.println();
-		}
+	/**
+	 * Ends the AI's helper search threads once it is no longer needed. May
+	 * not be called while the AI is thinking.
+	 */
+	public void shutdown() {
+		search.shutdown();
+	}
 
-		return value;
+	/**
+	 * Returns the number of plies the AI searches at its difficulty.
+	 * 
+	 * @return The search depth, between 1 and Search.MAX_PLY.
+	 */
+	private int getSearchDepth() {
+		return Math.max(1, Math.min(Search.MAX_PLY, BASE_SEARCH_DEPTH + difficulty_));
 	}
 
 	/**
@@ -235,91 +274,4 @@ public class AI {
 		System.out.println("Forking value of the piece at space: " + possibleMove + " = " + average);
 		return average;
 	}*/
-
-	// computes and returns the value of a trade between the two pieces
-	// based on their value and the total material each side has
-	// pre: AIPiece and playerPiece are not null
-	private int computeValueForTrade(Piece AIPiece, Piece playerPiece) {
-		// check precondition
-		if (AIPiece == null || playerPiece == null)
-			throw new IllegalArgumentException("AIPiece and playerPiece may not be null!");
-
-		int valueForTrade = 0;
-		int whiteMaterial = getTotalMaterial(true);
-		int blackMaterial = getTotalMaterial(false);
-		int pieceDifference = getPieceValueDifference(AIPiece, playerPiece);
-
-		valueForTrade += pieceDifference;
-		if (valueForTrade == 0) {
-			if (isWhite && whiteMaterial > blackMaterial) {
-				System.out.println("AI has equal trade opportunity while up in material--good");
-				valueForTrade++;
-			} else if (isWhite && whiteMaterial < blackMaterial) {
-				System.out.println("AI has equal trade opportunity while down in material--bad");
-				valueForTrade--;
-			} else if (!isWhite && whiteMaterial < blackMaterial) {
-				System.out.println("AI has equal trade opportunity while up in material--good");
-				valueForTrade++;
-			} else if (!isWhite && whiteMaterial > blackMaterial) {
-				System.out.println("AI has equal trade opportunity while down in material--bad");
-				valueForTrade--;
-			}
-		}
-
-		return valueForTrade;
-	}
-
-	/**
-	 * Returns the material difference between the two teams in terms of the
-	 * AI's lead (or lack thereof). For example, if the AI is playing as white
-	 * and white is up by a knight, this method will return 3. If the AI was
-	 * playing as black in the same situation though, the method would return
-	 * -3. In other words, this method returns the amount of material the AI is
-	 * winning or losing by. <br>
-	 * pre: none
-	 * 
-	 * @return The amount of material the AI is up or down by.
-	 */
-	private int getMaterialDifference() {
-		int whiteMaterial = getTotalMaterial(true);
-		int blackMaterial = getTotalMaterial(false);
-		return isWhite ? whiteMaterial - blackMaterial : blackMaterial - whiteMaterial;
-	}
-
-	/**
-	 * Returns the total material that the given team has left on the board.
-	 * <br>
-	 * pre: none
-	 * 
-	 * @param white
-	 *            A boolean indicating whether to check the white team or the
-	 *            black team. True for white, false for black.
-	 * @return The total material that the given team has in play.
-	 */
-	private int getTotalMaterial(boolean white) {
-		ArrayList<Piece> team;
-		if (white)
-			team = board.getWhitePieces();
-		else
-			team = board.getBlackPieces();
-
-		int totalMaterial = 0;
-		for (int i = 0; i < team.size(); i++)
-			if (!team.get(i).isCaptured())
-				totalMaterial += team.get(i).getValue();
-
-		return totalMaterial;
-	}
-
-	// returns the value of a trade between the two pieces
-	// Ex: our knight attacks a queen = 9 - 3 = 6
-	// pre: AIPiece && playerPiece may not be null
-	private int getPieceValueDifference(Piece AIPiece, Piece playerPiece) {
-		// check precondition
-		if (AIPiece == null || playerPiece == null)
-			throw new IllegalArgumentException("AIPiece and playerPiece may not be null");
-
-		System.out.println("Piece value difference: " + (playerPiece.getValue() - AIPiece.getValue()));
-		return playerPiece.getValue() - AIPiece.getValue();
-	}
 }
@@ -0,0 +1,343 @@
+package chess;
+
+/**
+ * A utility class for working with bitboards. A bitboard is a long in which
+ * each bit represents one space on the board. The space at (row, col) is
+ * represented by bit (row * 8 + col), so bit 0 is the top left space of the
+ * board and bit 63 is the bottom right space.
+ */
+public final class Bitboard {
+
+	// class constants
+	public static final int NUM_SPACES = 64;
+	public static final long EMPTY = 0L;
+
+	// the light spaces of the board, starting with the top left space
+	public static final long LIGHT_SQUARES = 0xAA55AA55AA55AA55L;
+
+	// precomputed attacks for the pieces that do not slide
+	public static final long[] KNIGHT_ATTACKS = new long[NUM_SPACES];
+	public static final long[] KING_ATTACKS = new long[NUM_SPACES];
+	public static final long[] WHITE_PAWN_ATTACKS = new long[NUM_SPACES];
+	public static final long[] BLACK_PAWN_ATTACKS = new long[NUM_SPACES];
+
+	// the directions that bishops and rooks slide in
+	private static final int[] BISHOP_ROW_CHANGES = new int[] {-1, 1, 1, -1};
+	private static final int[] BISHOP_COL_CHANGES = new int[] { 1, 1, -1, -1};
+	private static final int[] ROOK_ROW_CHANGES = new int[] {-1, 1, 0, 0};
+	private static final int[] ROOK_COL_CHANGES = new int[] { 0, 0, -1, 1};
+
+	// Magic bitboard tables for the sliding pieces. The occupied spaces
+	// under a square's mask are multiplied by its magic number and shifted
+	// down to give an index into the square's table of attacks.
+	private static final long[] BISHOP_MASKS = new long[NUM_SPACES];
+	private static final long[] ROOK_MASKS = new long[NUM_SPACES];
+	private static final long[] BISHOP_MAGICS = new long[] {
+			0x10102002004A1420L, 0x3009080104082090L, 0x20A2020400200808L, 0x0204404080020102L,
+			0x0101104000000028L, 0x28811008040000E8L, 0x1031011032200020L, 0x0041040118921000L,
+			0x0400041004812400L, 0x4100108188008081L, 0x0020484604042A09L, 0x000002208A002100L,
+			0x00000A1210002805L, 0x400A410460448100L, 0x013060480A086000L, 0x2101411400840412L,
+			0x1A10100404500409L, 0x4010028401026400L, 0x2050000800401020L, 0x0008202404001420L,
+			0x0032880400A00600L, 0x0202000022100202L, 0x0204082082111040L, 0x480C210084010800L,
+			0x00C2620410200200L, 0x80C2102042901202L, 0x9000320050040040L, 0x8004080010220040L,
+			0x0020044002003004L, 0x120401884100A003L, 0x2004208014020128L, 0x04010302005400A0L,
+			0x0950084500600402L, 0x81E0900901102200L, 0x10040128008412C0L, 0x0402004042940100L,
+			0x2104204010040100L, 0x0420009100802400L, 0x0204082220808082L, 0x2002004248020218L,
+			0x0001042160208400L, 0x00440D0148101080L, 0x8044A02030000802L, 0xC081044206204800L,
+			0x0000219020800400L, 0x8404010041000201L, 0x02210C0102492209L, 0x8010012110283100L,
+			0x0183880109A00001L, 0x1001411090900080L, 0x2002120084045420L, 0x2126087842020022L,
+			0x8040004010410128L, 0x08024030C2008020L, 0x0121241004812002L, 0x0308010822004000L,
+			0x0083042805141020L, 0x0220804212102288L, 0x8000014100880400L, 0x1000080000840410L,
+			0x0088080031203200L, 0x001002200202C202L, 0x0000054802540400L, 0xA010041108003100L
+	};
+	private static final long[] ROOK_MAGICS = new long[] {
+			0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+			0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+			0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+			0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+			0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+			0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+			0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+			0x0050500500080100L, 0x0000020080040080L, 0x0C10010400420810L, 0x1040008200005104L,
+			0x01808240088004A0L, 0x0882804004802000L, 0x0880402001001100L, 0x0000100080800800L,
+			0x2000480131001500L, 0x0002000400800280L, 0x0080020104000810L, 0x80441044120000A1L,
+			0x0000800040008020L, 0x041040201000C000L, 0x0001004020010010L, 0x0800100100090021L,
+			0x0004080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+			0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+			0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+			0x000C91800020C101L, 0x0A41104009802103L, 0x000880401202210AL, 0x0000300089142101L,
+			0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x000008208044010AL
+	};
+	private static final int[] BISHOP_SHIFTS = new int[NUM_SPACES];
+	private static final int[] ROOK_SHIFTS = new int[NUM_SPACES];
+	private static final long[][] BISHOP_TABLE = new long[NUM_SPACES][];
+	private static final long[][] ROOK_TABLE = new long[NUM_SPACES][];
+
+	// the spaces strictly between two squares on the same row, column or
+	// diagonal, or EMPTY if the squares are not aligned
+	private static final long[][] BETWEEN = new long[NUM_SPACES][NUM_SPACES];
+
+	static {
+		// Knight and king offsets start at 1 o'clock and go clockwise
+		final int[] knightRowChanges = new int[] { -2, -1, 1, 2,  2,  1, -1, -2};
+		final int[] knightColChanges = new int[] {  1,  2, 2, 1, -1, -2, -2, -1};
+		final int[] kingRowChanges = new int[] {-1, 0, 1, 1,  1,  0, -1, -1};
+		final int[] kingColChanges = new int[] { 1, 1, 1, 0, -1, -1, -1,  0};
+
+		for (int square = 0; square < NUM_SPACES; square++) {
+			int row = row(square);
+			int col = col(square);
+			KNIGHT_ATTACKS[square] = offsetsFrom(row, col, knightRowChanges, knightColChanges);
+			KING_ATTACKS[square] = offsetsFrom(row, col, kingRowChanges, kingColChanges);
+			WHITE_PAWN_ATTACKS[square] = offsetsFrom(row, col, new int[] {-1, -1}, new int[] {-1, 1});
+			BLACK_PAWN_ATTACKS[square] = offsetsFrom(row, col, new int[] {1, 1}, new int[] {-1, 1});
+		}
+
+		for (int square = 0; square < NUM_SPACES; square++) {
+			BISHOP_MASKS[square] = relevantOccupancy(square, BISHOP_ROW_CHANGES, BISHOP_COL_CHANGES);
+			BISHOP_SHIFTS[square] = NUM_SPACES - Long.bitCount(BISHOP_MASKS[square]);
+			BISHOP_TABLE[square] = fillMagicTable(square, BISHOP_MASKS[square], BISHOP_MAGICS[square],
+					BISHOP_SHIFTS[square], BISHOP_ROW_CHANGES, BISHOP_COL_CHANGES);
+
+			ROOK_MASKS[square] = relevantOccupancy(square, ROOK_ROW_CHANGES, ROOK_COL_CHANGES);
+			ROOK_SHIFTS[square] = NUM_SPACES - Long.bitCount(ROOK_MASKS[square]);
+			ROOK_TABLE[square] = fillMagicTable(square, ROOK_MASKS[square], ROOK_MAGICS[square],
+					ROOK_SHIFTS[square], ROOK_ROW_CHANGES, ROOK_COL_CHANGES);
+		}
+
+		for (int square = 0; square < NUM_SPACES; square++) {
+			for (int direction = 0; direction < kingRowChanges.length; direction++) {
+				long path = EMPTY;
+				int r = row(square) + kingRowChanges[direction];
+				int c = col(square) + kingColChanges[direction];
+				while (r >= Board.MIN_ROW && r <= Board.MAX_ROW && c >= Board.MIN_COL && c <= Board.MAX_COL) {
+					BETWEEN[square][square(r, c)] = path;
+					path |= bit(square(r, c));
+					r += kingRowChanges[direction];
+					c += kingColChanges[direction];
+				}
+			}
+		}
+	}
+
+	private Bitboard() {
+		// Not instantiable
+	}
+
+	/**
+	 * Helper method for the static initializer that returns a bitboard of the
+	 * spaces reached by applying each of the given offsets to (row, col).
+	 * Offsets that fall off the board are ignored.
+	 */
+	private static long offsetsFrom(int row, int col, int[] rowChanges, int[] colChanges) {
+		long result = EMPTY;
+		for (int i = 0; i < rowChanges.length; i++) {
+			int r = row + rowChanges[i];
+			int c = col + colChanges[i];
+			if (r >= Board.MIN_ROW && r <= Board.MAX_ROW && c >= Board.MIN_COL && c <= Board.MAX_COL) {
+				result |= bit(square(r, c));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Helper method for the static initializer that returns the spaces whose
+	 * occupancy can change a slider's attacks from the given square: every
+	 * space along its directions except the last one before the edge.
+	 */
+	private static long relevantOccupancy(int square, int[] rowChanges, int[] colChanges) {
+		long mask = EMPTY;
+		for (int i = 0; i < rowChanges.length; i++) {
+			int r = row(square) + rowChanges[i];
+			int c = col(square) + colChanges[i];
+			while (r + rowChanges[i] >= Board.MIN_ROW && r + rowChanges[i] <= Board.MAX_ROW
+					&& c + colChanges[i] >= Board.MIN_COL && c + colChanges[i] <= Board.MAX_COL) {
+				mask |= bit(square(r, c));
+				r += rowChanges[i];
+				c += colChanges[i];
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * Helper method for the static initializer that builds the attack table
+	 * for a slider on the given square by computing the attacks for every
+	 * subset of the mask and storing them at the subset's magic index.
+	 *
+	 * @return The attack table for the square.
+	 */
+	private static long[] fillMagicTable(int square, long mask, long magic, int shift,
+			int[] rowChanges, int[] colChanges) {
+		long[] table = new long[1 << Long.bitCount(mask)];
+		boolean[] filled = new boolean[table.length];
+
+		// enumerate every subset of the mask with the carry-rippler trick
+		long subset = EMPTY;
+		do {
+			int index = (int) ((subset * magic) >>> shift);
+			long attacks = slidingAttacks(square, subset, rowChanges, colChanges);
+			if (filled[index] && table[index] != attacks) {
+				throw new IllegalStateException("Magic number for square " + square + " has a collision.");
+			}
+			table[index] = attacks;
+			filled[index] = true;
+			subset = (subset - mask) & mask;
+		} while (subset != EMPTY);
+
+		return table;
+	}
+
+	/**
+	 * Returns the square index of the given row and column. <br>
+	 * pre: Board.MIN_ROW <= row <= Board.MAX_ROW && Board.MIN_COL <= col <= Board.MAX_COL
+	 *
+	 * @param row The row of the space.
+	 * @param col The column of the space.
+	 * @return The square index of the space.
+	 */
+	public static int square(int row, int col) {
+		return (row << 3) | col;
+	}
+
+	/**
+	 * Returns the row of the given square index.
+	 *
+	 * @param square The square index. 0 <= square < NUM_SPACES
+	 * @return The row of the square.
+	 */
+	public static int row(int square) {
+		return square >>> 3;
+	}
+
+	/**
+	 * Returns the column of the given square index.
+	 *
+	 * @param square The square index. 0 <= square < NUM_SPACES
+	 * @return The column of the square.
+	 */
+	public static int col(int square) {
+		return square & 7;
+	}
+
+	/**
+	 * Returns the name of the given square in algebraic notation, such as
+	 * "e4". Files a-h are columns 0-7 and ranks 8-1 are rows 0-7.
+	 *
+	 * @param square The square index. 0 <= square < NUM_SPACES
+	 * @return The name of the square.
+	 */
+	public static String squareName(int square) {
+		return "" + (char) ('a' + col(square)) + (char) ('8' - row(square));
+	}
+
+	/**
+	 * Returns the square with the given name in algebraic notation.
+	 *
+	 * @param name The name of the square, such as "e4". May not be null.
+	 * @return The square index.
+	 * @throws IllegalArgumentException if the name is not a square.
+	 */
+	public static int parseSquare(String name) {
+		if (name.length() != 2)
+			throw new IllegalArgumentException("Not a square: " + name);
+		int col = name.charAt(0) - 'a';
+		int row = '8' - name.charAt(1);
+		if (col < 0 || col > 7 || row < 0 || row > 7)
+			throw new IllegalArgumentException("Not a square: " + name);
+		return square(row, col);
+	}
+
+	/**
+	 * Returns a bitboard containing only the given square.
+	 *
+	 * @param square The square index. 0 <= square < NUM_SPACES
+	 * @return A bitboard with only the given square set.
+	 */
+	public static long bit(int square) {
+		return 1L << square;
+	}
+
+	/**
+	 * Returns the spaces strictly between the two squares if they share a
+	 * row, column or diagonal.
+	 *
+	 * @param from The first square. 0 <= from < NUM_SPACES
+	 * @param to The second square. 0 <= to < NUM_SPACES
+	 * @return A bitboard of the spaces between the squares, or EMPTY if the
+	 *         squares are not aligned or are adjacent.
+	 */
+	public static long between(int from, int to) {
+		return BETWEEN[from][to];
+	}
+
+	/**
+	 * Returns the attacks of a pawn of the given color on the given square.
+	 *
+	 * @param square The square the pawn is on. 0 <= square < NUM_SPACES
+	 * @param isWhite A boolean indicating whether the pawn is white.
+	 * @return A bitboard of the spaces the pawn attacks.
+	 */
+	public static long pawnAttacks(int square, boolean isWhite) {
+		return isWhite ? WHITE_PAWN_ATTACKS[square] : BLACK_PAWN_ATTACKS[square];
+	}
+
+	/**
+	 * Returns the spaces attacked by a bishop on the given square. Each
+	 * diagonal stops at (and includes) the first occupied space.
+	 *
+	 * @param square The square the bishop is on. 0 <= square < NUM_SPACES
+	 * @param occupancy A bitboard of all occupied spaces.
+	 * @return A bitboard of the spaces the bishop attacks.
+	 */
+	public static long bishopAttacks(int square, long occupancy) {
+		return BISHOP_TABLE[square][(int) (((occupancy & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+	}
+
+	/**
+	 * Returns the spaces attacked by a rook on the given square. Each line
+	 * stops at (and includes) the first occupied space.
+	 *
+	 * @param square The square the rook is on. 0 <= square < NUM_SPACES
+	 * @param occupancy A bitboard of all occupied spaces.
+	 * @return A bitboard of the spaces the rook attacks.
+	 */
+	public static long rookAttacks(int square, long occupancy) {
+		return ROOK_TABLE[square][(int) (((occupancy & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+	}
+
+	/**
+	 * Returns the spaces attacked by a queen on the given square.
+	 *
+	 * @param square The square the queen is on. 0 <= square < NUM_SPACES
+	 * @param occupancy A bitboard of all occupied spaces.
+	 * @return A bitboard of the spaces the queen attacks.
+	 */
+	public static long queenAttacks(int square, long occupancy) {
+		return bishopAttacks(square, occupancy) | rookAttacks(square, occupancy);
+	}
+
+	/**
+	 * Helper method for the static initializer that walks each of the given
+	 * directions from the square, stopping at the edge of the board or the
+	 * first occupied space.
+	 */
+	private static long slidingAttacks(int square, long occupancy, int[] rowChanges, int[] colChanges) {
+		long attacks = EMPTY;
+		for (int i = 0; i < rowChanges.length; i++) {
+			int r = row(square) + rowChanges[i];
+			int c = col(square) + colChanges[i];
+			while (r >= Board.MIN_ROW && r <= Board.MAX_ROW && c >= Board.MIN_COL && c <= Board.MAX_COL) {
+				long bit = bit(square(r, c));
+				attacks |= bit;
+				if ((occupancy & bit) != 0) {
+					break;
+				}
+				r += rowChanges[i];
+				c += colChanges[i];
+			}
+		}
+		return attacks;
+	}
+}
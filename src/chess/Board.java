@@ -0,0 +1,2359 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A class that represents a chess board.
+ * 
+ * @author jstenglein 11/19/16
+ */
+public class Board {
+
+	// class constants
+	public static final int MIN_ROW = 0, MIN_COL = 0;
+	public static final int MAX_ROW = 7, MAX_COL = 7;
+	
+	// an upper bound on the number of legal moves in any position,
+	// for sizing the buffers passed to generateLegalMoves()
+	public static final int MAX_MOVES = 256;
+	
+	// castling rights, combined into a set of flags
+	public static final int CASTLE_WHITE_KINGSIDE = 1;
+	public static final int CASTLE_WHITE_QUEENSIDE = 2;
+	public static final int CASTLE_BLACK_KINGSIDE = 4;
+	public static final int CASTLE_BLACK_QUEENSIDE = 8;
+	public static final int ALL_CASTLING_RIGHTS = 15;
+	
+	// the en passant square when the last move was not a double pawn push
+	public static final int NO_SQUARE = -1;
+	
+	// starting positions for pieces
+	private static final int[] ROOK_COLUMNS = new int[] {MIN_COL, MAX_COL};
+	private static final int[] KNIGHT_COLUMNS = new int[] {1, 6};
+	private static final int[] BISHOP_COLUMNS = new int[] {2, 5};
+	private static final int QUEEN_COLUMN = 3;
+	private static final int KING_COLUMN = 4;
+	private static final int WHITE_PAWN_START_ROW = 6;
+	private static final int BLACK_PAWN_START_ROW = 1;
+	private static final int[] KINGSIDE_CASTLE = new int[] {5, 6};
+	private static final int[] QUEENSIDE_CASTLE = new int[] {1, 3, 2}; 
+	private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+	private static final Piece.PieceType[] PROMOTION_TYPES = new Piece.PieceType[] {
+			Piece.PieceType.QUEEN, Piece.PieceType.ROOK, Piece.PieceType.BISHOP, Piece.PieceType.KNIGHT };
+	private static final int INITIAL_UNDO_STACK_SIZE = 256;
+	private static final int FIFTY_MOVE_RULE_PLIES = 100;
+	private static final int EXCHANGE_KING_VALUE = 1000;
+	// at most every piece on the board can take part in one exchange
+	private static final int MAX_EXCHANGE_LENGTH = 33;
+	
+	// the piece types that can always force checkmate, either directly or
+	// after promotion
+	private static final Piece.PieceType[] MATING_TYPES = new Piece.PieceType[] {
+			Piece.PieceType.PAWN, Piece.PieceType.ROOK, Piece.PieceType.QUEEN };
+	
+	// the castling rights that survive a move from or to each square
+	private static final int[] CASTLING_RIGHTS_MASKS = createCastlingRightsMasks();
+
+	// instance variables
+	private Space[][] spaces;
+	private ArrayList<Piece> blackPieces;
+	private ArrayList<Piece> whitePieces;
+	private Piece blackKing;
+	private Piece whiteKing;
+	
+	// bitboards for each type and color of piece, indexed by
+	// Piece.index(), and the spaces occupied by each color
+	private long[] pieceBitboards;
+	private long whiteOccupancy;
+	private long blackOccupancy;
+	
+	// the index of the piece on each square, or Piece.NO_INDEX
+	private int[] mailbox;
+	
+	// the side to move, the castling rights still available, the square
+	// behind a pawn that just moved two spaces and the Zobrist hash of
+	// the position (see Zobrist)
+	private boolean whiteToMove;
+	private int castlingRights;
+	private int enPassantSquare;
+	private long hash;
+	
+	// the Zobrist hash of the pawns alone, for caching pawn structure
+	// scores (see Evaluator)
+	private long pawnHash;
+	
+	// the number of moves since the last capture or pawn move, and the
+	// number of the current full move, which starts at 1 and goes up
+	// after each of black's moves
+	private int halfmoveClock;
+	private int fullmoveNumber;
+	
+	// the piece-square scores of the position from white's point of view
+	// (see Evaluator), the game phase and the material of each side in
+	// pawns, all kept up to date as pieces are placed and removed
+	private int middlegameScore;
+	private int endgameScore;
+	private int gamePhase;
+	private int whiteMaterial;
+	private int blackMaterial;
+	
+	// one record for each move that has been made and not undone, holding
+	// what the move cannot restore by itself (see UndoRecord). The records
+	// past undoSize are kept for reuse.
+	private UndoRecord[] undoStack;
+	private int undoSize;
+	
+	// the hashes of the positions before the undo history, oldest first,
+	// carried over by copyFrom() so that repetitions of positions from
+	// before the copy are still found. Only the positions since the last
+	// capture or pawn move are kept, since no earlier one can repeat.
+	private long[] priorHashes;
+	private int priorSize;
+	
+	// scratch buffer for the methods that return moves as Move objects
+	private int[] moveBuffer;
+	
+	// scratch buffer for the gains at each capture of an exchange
+	private int[] exchangeGains;
+	
+	// pin and check information for the side whose moves are
+	// being generated, filled in by findPinsAndChecks()
+	private long checkers;
+	private long checkMask;
+	private long pinned;
+	private long[] pinRays;
+	
+	
+	/**
+	 * Creates a new Board object with pieces in their starting location.
+	 */
+	public Board() {
+		createEmptyBoard();
+		whitePieces = createPieces(true);
+		whiteKing = whitePieces.get(whitePieces.size() - 1);
+		blackPieces = createPieces(false);
+		blackKing = blackPieces.get(blackPieces.size() - 1);
+		for (int i = 0; i < whitePieces.size(); i++) {
+			whitePieces.get(i).setListIndex(i);
+			blackPieces.get(i).setListIndex(i);
+		}
+		whiteToMove = true;
+		castlingRights = ALL_CASTLING_RIGHTS;
+		enPassantSquare = NO_SQUARE;
+		fullmoveNumber = 1;
+		hash = computeHash();
+	}
+
+	/**
+	 * Creates a new Board object with the position described by the given
+	 * FEN string. See setFen().
+	 * 
+	 * @param fen The position in Forsyth-Edwards Notation. May not be null.
+	 * @throws IllegalArgumentException if fen is not a valid position.
+	 */
+	public Board(CharSequence fen) {
+		createEmptyBoard();
+		whitePieces = new ArrayList<Piece>();
+		blackPieces = new ArrayList<Piece>();
+		setFen(fen);
+	}
+	
+	/**
+	 * Sets this board to the position described by the given FEN string.
+	 * The string is read in place, one character at a time, and this
+	 * board's Piece objects are reused, so loading a position allocates
+	 * nothing unless it has more pieces than the last one. The halfmove and
+	 * fullmove counters may be left out. The undo history is cleared.
+	 * Each side must have exactly one king, and no pawn may stand on the
+	 * first or last rank. Castling rights are only accepted while the king
+	 * and the rook are on their starting squares, and an en passant square
+	 * only right behind a pawn that could have just moved two squares past
+	 * it.
+	 * 
+	 * @param fen The position in Forsyth-Edwards Notation. May not be null.
+	 * @throws IllegalArgumentException if fen is not a valid position. The
+	 *             board is left in an unspecified state.
+	 */
+	public void setFen(CharSequence fen) {
+		if (fen == null) {
+			throw new IllegalArgumentException("The FEN string may not be null.");
+		}
+
+		// empty the board
+		long occupancy = getOccupancy();
+		while (occupancy != 0) {
+			int square = Long.numberOfTrailingZeros(occupancy);
+			occupancy &= occupancy - 1;
+			spaces[Bitboard.row(square)][Bitboard.col(square)].setPiece(null);
+		}
+		Arrays.fill(pieceBitboards, Bitboard.EMPTY);
+		Arrays.fill(mailbox, Piece.NO_INDEX);
+		whiteOccupancy = Bitboard.EMPTY;
+		blackOccupancy = Bitboard.EMPTY;
+		pawnHash = Bitboard.EMPTY;
+		middlegameScore = 0;
+		endgameScore = 0;
+		gamePhase = 0;
+		whiteMaterial = 0;
+		blackMaterial = 0;
+		whiteKing = null;
+		blackKing = null;
+		clearUndoStack();
+
+		// the piece placement lists the rows from black's side of the board
+		int index = skipSpaces(fen, 0);
+		int whiteCount = 0;
+		int blackCount = 0;
+		int row = MIN_ROW;
+		int col = MIN_COL;
+		for (; index < fen.length() && fen.charAt(index) != ' '; index++) {
+			char symbol = fen.charAt(index);
+			if (symbol == '/') {
+				if (col != MAX_COL + 1 || row == MAX_ROW) {
+					throw new IllegalArgumentException("Invalid piece placement in FEN string: " + fen);
+				}
+				row++;
+				col = MIN_COL;
+				continue;
+			} else if (symbol >= '1' && symbol <= '8') {
+				col += symbol - '0';
+				if (col > MAX_COL + 1) {
+					throw new IllegalArgumentException("Invalid piece placement in FEN string: " + fen);
+				}
+				continue;
+			}
+
+			Piece.PieceType type = Piece.typeForSymbol(symbol);
+			if (type == null || col > MAX_COL) {
+				throw new IllegalArgumentException("Invalid piece placement in FEN string: " + fen);
+			}
+			if (type == Piece.PieceType.PAWN && (row == MIN_ROW || row == MAX_ROW)) {
+				throw new IllegalArgumentException("Pawn on the first or last rank in FEN string: " + fen);
+			}
+			boolean isWhite = Character.isUpperCase(symbol);
+			if (type == Piece.PieceType.KING && (isWhite ? whiteKing : blackKing) != null) {
+				throw new IllegalArgumentException("The FEN string may only have one king per side: " + fen);
+			}
+			Piece piece = isWhite ? reusePiece(whitePieces, whiteCount++) : reusePiece(blackPieces, blackCount++);
+			piece.reset(type, isWhite, row, col);
+			if (type == Piece.PieceType.KING) {
+				if (isWhite) {
+					whiteKing = piece;
+				} else {
+					blackKing = piece;
+				}
+			}
+			spaces[row][col].setPiece(piece);
+			placeOnBitboards(piece, row, col);
+			col++;
+		}
+		if (row != MAX_ROW || col != MAX_COL + 1) {
+			throw new IllegalArgumentException("The FEN string does not have 8 full rows: " + fen);
+		}
+		if (whiteKing == null || blackKing == null) {
+			throw new IllegalArgumentException("The FEN string must have both kings: " + fen);
+		}
+		removePiecesAfter(whitePieces, whiteCount);
+		removePiecesAfter(blackPieces, blackCount);
+
+		// side to move
+		index = skipSpaces(fen, index);
+		if (index < fen.length() && fen.charAt(index) == 'w') {
+			whiteToMove = true;
+		} else if (index < fen.length() && fen.charAt(index) == 'b') {
+			whiteToMove = false;
+		} else {
+			throw new IllegalArgumentException("Invalid side to move in FEN string: " + fen);
+		}
+		index++;
+
+		// castling rights
+		index = skipSpaces(fen, index);
+		castlingRights = 0;
+		if (index < fen.length() && fen.charAt(index) == '-') {
+			index++;
+		} else {
+			for (; index < fen.length() && fen.charAt(index) != ' '; index++) {
+				switch (fen.charAt(index)) {
+					case 'K':
+						castlingRights |= CASTLE_WHITE_KINGSIDE;
+						break;
+					case 'Q':
+						castlingRights |= CASTLE_WHITE_QUEENSIDE;
+						break;
+					case 'k':
+						castlingRights |= CASTLE_BLACK_KINGSIDE;
+						break;
+					case 'q':
+						castlingRights |= CASTLE_BLACK_QUEENSIDE;
+						break;
+					default:
+						throw new IllegalArgumentException("Invalid castling rights in FEN string: " + fen);
+				}
+			}
+		}
+		if (((castlingRights & CASTLE_WHITE_KINGSIDE) != 0 && !hasCastlingPieces(true, MAX_COL))
+				|| ((castlingRights & CASTLE_WHITE_QUEENSIDE) != 0 && !hasCastlingPieces(true, MIN_COL))
+				|| ((castlingRights & CASTLE_BLACK_KINGSIDE) != 0 && !hasCastlingPieces(false, MAX_COL))
+				|| ((castlingRights & CASTLE_BLACK_QUEENSIDE) != 0 && !hasCastlingPieces(false, MIN_COL))) {
+			throw new IllegalArgumentException("Castling rights without the king and rook in place in FEN string: " + fen);
+		}
+
+		// en passant square
+		index = skipSpaces(fen, index);
+		if (index < fen.length() && fen.charAt(index) == '-') {
+			enPassantSquare = NO_SQUARE;
+			index++;
+		} else if (index + 1 < fen.length() && fen.charAt(index) >= 'a' && fen.charAt(index) <= 'h'
+				&& fen.charAt(index + 1) >= '1' && fen.charAt(index + 1) <= '8') {
+			enPassantSquare = Bitboard.square('8' - fen.charAt(index + 1), fen.charAt(index) - 'a');
+			if (!isPossibleEnPassantSquare(enPassantSquare)) {
+				throw new IllegalArgumentException("En passant square without a pawn to capture in FEN string: " + fen);
+			}
+			index += 2;
+		} else {
+			throw new IllegalArgumentException("Invalid en passant square in FEN string: " + fen);
+		}
+
+		// the halfmove clock and fullmove number are optional
+		index = skipSpaces(fen, index);
+		halfmoveClock = 0;
+		fullmoveNumber = 1;
+		if (index < fen.length()) {
+			int end = skipNumber(fen, index);
+			halfmoveClock = parseNumber(fen, index, end);
+			index = skipSpaces(fen, end);
+			if (index < fen.length()) {
+				end = skipNumber(fen, index);
+				fullmoveNumber = parseNumber(fen, index, end);
+				index = skipSpaces(fen, end);
+			}
+		}
+		if (index != fen.length()) {
+			throw new IllegalArgumentException("Unexpected characters at the end of FEN string: " + fen);
+		}
+
+		hash = computeHash();
+	}
+	
+	/**
+	 * Helper method for setFen() that returns whether the king and a rook of
+	 * the given color are on the squares they castle from.
+	 * 
+	 * @param isWhite A boolean indicating whether to check white or black's pieces.
+	 * @param rookCol The column of the rook, MIN_COL or MAX_COL.
+	 * @return True if the king and the rook are in place.
+	 */
+	private boolean hasCastlingPieces(boolean isWhite, int rookCol) {
+		int row = isWhite ? MAX_ROW : MIN_ROW;
+		return mailbox[Bitboard.square(row, KING_COLUMN)] == Piece.index(Piece.PieceType.KING, isWhite)
+				&& mailbox[Bitboard.square(row, rookCol)] == Piece.index(Piece.PieceType.ROOK, isWhite);
+	}
+	
+	/**
+	 * Helper method for setFen() that returns whether the given square could
+	 * be the en passant square after the last move: it is empty, and on the
+	 * row the opponent's pawns pass over when they move two squares, with
+	 * such a pawn right past it and nothing on the square the pawn came from.
+	 * <br>
+	 * pre: the side to move has been set
+	 * 
+	 * @param square The en passant square. 0 <= square < Bitboard.NUM_SPACES
+	 * @return True if a double pawn push could have just passed the square.
+	 */
+	private boolean isPossibleEnPassantSquare(int square) {
+		int startRow = whiteToMove ? BLACK_PAWN_START_ROW : WHITE_PAWN_START_ROW;
+		int direction = whiteToMove ? 1 : -1;
+		int row = Bitboard.row(square);
+		int col = Bitboard.col(square);
+		return row == startRow + direction
+				&& mailbox[square] == Piece.NO_INDEX
+				&& mailbox[Bitboard.square(startRow, col)] == Piece.NO_INDEX
+				&& mailbox[Bitboard.square(row + direction, col)] == Piece.index(Piece.PieceType.PAWN, !whiteToMove);
+	}
+	
+	/**
+	 * Helper method for setFen() that returns the Piece at the given index of
+	 * the list, adding a new Piece if the list is not that long.
+	 * 
+	 * @param pieces The list of pieces to reuse. May not be null.
+	 * @param index The index of the piece. 0 <= index <= pieces.size()
+	 * @return The Piece to reuse.
+	 */
+	private Piece reusePiece(ArrayList<Piece> pieces, int index) {
+		if (index == pieces.size()) {
+			pieces.add(new Piece(Piece.PieceType.PAWN, true, MIN_ROW, MIN_COL));
+		}
+		Piece piece = pieces.get(index);
+		piece.setListIndex(index);
+		return piece;
+	}
+	
+	/**
+	 * Helper method for setFen() that removes the pieces from the given
+	 * index to the end of the list.
+	 */
+	private void removePiecesAfter(ArrayList<Piece> pieces, int size) {
+		while (pieces.size() > size) {
+			pieces.remove(pieces.size() - 1);
+		}
+	}
+	
+	/**
+	 * Helper method for setFen() that returns the index of the first
+	 * character at or after the given index that is not a space.
+	 */
+	private static int skipSpaces(CharSequence fen, int index) {
+		while (index < fen.length() && fen.charAt(index) == ' ') {
+			index++;
+		}
+		return index;
+	}
+	
+	/**
+	 * Helper method for setFen() that returns the index just past the
+	 * digits starting at the given index.
+	 */
+	private static int skipNumber(CharSequence fen, int index) {
+		while (index < fen.length() && fen.charAt(index) >= '0' && fen.charAt(index) <= '9') {
+			index++;
+		}
+		return index;
+	}
+	
+	/**
+	 * Helper method for setFen() that parses the digits between start and
+	 * end as a non-negative number.
+	 * 
+	 * @throws IllegalArgumentException if there are no digits.
+	 */
+	private static int parseNumber(CharSequence fen, int start, int end) {
+		if (start == end || end - start > 9) {
+			throw new IllegalArgumentException("Invalid move counter in FEN string: " + fen);
+		}
+		int number = 0;
+		for (int i = start; i < end; i++) {
+			number = number * 10 + (fen.charAt(i) - '0');
+		}
+		return number;
+	}
+	
+	/**
+	 * Returns the current position in Forsyth-Edwards Notation.
+	 * 
+	 * @return The FEN string of the position.
+	 */
+	public String toFen() {
+		StringBuilder sb = new StringBuilder(90);
+		for (int row = MIN_ROW; row <= MAX_ROW; row++) {
+			int emptySpaces = 0;
+			for (int col = MIN_COL; col <= MAX_COL; col++) {
+				int index = mailbox[Bitboard.square(row, col)];
+				if (index == Piece.NO_INDEX) {
+					emptySpaces++;
+					continue;
+				}
+				if (emptySpaces > 0) {
+					sb.append(emptySpaces);
+					emptySpaces = 0;
+				}
+				sb.append(Piece.symbolOf(Piece.typeOf(index), Piece.isWhiteIndex(index)));
+			}
+			if (emptySpaces > 0) {
+				sb.append(emptySpaces);
+			}
+			if (row != MAX_ROW) {
+				sb.append('/');
+			}
+		}
+
+		sb.append(whiteToMove ? " w " : " b ");
+		if (castlingRights == 0) {
+			sb.append('-');
+		} else {
+			if ((castlingRights & CASTLE_WHITE_KINGSIDE) != 0)
+				sb.append('K');
+			if ((castlingRights & CASTLE_WHITE_QUEENSIDE) != 0)
+				sb.append('Q');
+			if ((castlingRights & CASTLE_BLACK_KINGSIDE) != 0)
+				sb.append('k');
+			if ((castlingRights & CASTLE_BLACK_QUEENSIDE) != 0)
+				sb.append('q');
+		}
+		sb.append(' ');
+		sb.append(enPassantSquare == NO_SQUARE ? "-" : Bitboard.squareName(enPassantSquare));
+		sb.append(' ').append(halfmoveClock);
+		sb.append(' ').append(fullmoveNumber);
+		return sb.toString();
+	}
+	
+	/**
+	 * Helper method for the constructors that creates the arrays of the
+	 * board with every space empty.
+	 */
+	private void createEmptyBoard() {
+		pieceBitboards = new long[Piece.NUM_INDICES];
+		mailbox = new int[Bitboard.NUM_SPACES];
+		Arrays.fill(mailbox, Piece.NO_INDEX);
+		pinRays = new long[Bitboard.NUM_SPACES];
+		undoStack = new UndoRecord[INITIAL_UNDO_STACK_SIZE];
+		for (int i = 0; i < undoStack.length; i++) {
+			undoStack[i] = new UndoRecord();
+		}
+		priorHashes = new long[FIFTY_MOVE_RULE_PLIES];
+		moveBuffer = new int[MAX_MOVES];
+		exchangeGains = new int[MAX_EXCHANGE_LENGTH];
+		spaces = new Space[MAX_ROW + 1][MAX_COL + 1];
+		for (int r = 0; r <= MAX_ROW; r++) {
+			for (int c = 0; c <= MAX_COL; c++) {
+				spaces[r][c] = new Space(r, c);
+			}
+		}
+	}
+
+	/**
+	 * Creates a new Board object that is an independent copy of the given
+	 * board, with its own pieces in the same position. See copyFrom().
+	 * 
+	 * @param board The board to copy. May not be null.
+	 */
+	public Board(Board board) {
+		createEmptyBoard();
+		whitePieces = new ArrayList<Piece>();
+		blackPieces = new ArrayList<Piece>();
+		copyFrom(board);
+	}
+	
+	/**
+	 * Sets this board to an independent copy of the given board. Moves made
+	 * on this board afterwards do not affect the other board, so a search
+	 * thread can keep one board and copy the position into it before each
+	 * search. Nothing is allocated unless the other board has more pieces;
+	 * this board's piece lists and Piece objects are reused. The undo
+	 * history is cleared: moves made on the other board before the copy
+	 * cannot be undone on this board. The hashes of the positions since the
+	 * last capture or pawn move are copied, though, so that repetitions of
+	 * positions from before the copy still count.
+	 * 
+	 * @param board The board to copy. May not be null.
+	 */
+	public void copyFrom(Board board) {
+		if (board == null) {
+			throw new IllegalArgumentException("The board to copy may not be null.");
+		}
+		if (board == this) {
+			return;
+		}
+
+		// empty the spaces this board's pieces were on
+		long occupancy = getOccupancy();
+		while (occupancy != 0) {
+			int square = Long.numberOfTrailingZeros(occupancy);
+			occupancy &= occupancy - 1;
+			spaces[Bitboard.row(square)][Bitboard.col(square)].setPiece(null);
+		}
+
+		System.arraycopy(board.pieceBitboards, 0, pieceBitboards, 0, Piece.NUM_INDICES);
+		System.arraycopy(board.mailbox, 0, mailbox, 0, Bitboard.NUM_SPACES);
+		whiteOccupancy = board.whiteOccupancy;
+		blackOccupancy = board.blackOccupancy;
+		whiteToMove = board.whiteToMove;
+		castlingRights = board.castlingRights;
+		enPassantSquare = board.enPassantSquare;
+		hash = board.hash;
+		pawnHash = board.pawnHash;
+		middlegameScore = board.middlegameScore;
+		endgameScore = board.endgameScore;
+		gamePhase = board.gamePhase;
+		whiteMaterial = board.whiteMaterial;
+		blackMaterial = board.blackMaterial;
+		halfmoveClock = board.halfmoveClock;
+		fullmoveNumber = board.fullmoveNumber;
+		clearUndoStack();
+		copyPriorHashes(board);
+
+		copyPieces(board.whitePieces, whitePieces);
+		copyPieces(board.blackPieces, blackPieces);
+		whiteKing = spaces[board.whiteKing.getRow()][board.whiteKing.getCol()].getPiece();
+		blackKing = spaces[board.blackKing.getRow()][board.blackKing.getCol()].getPiece();
+	}
+	
+	/**
+	 * Helper method for copyFrom() that copies the hashes of the other
+	 * board's positions since its last capture or pawn move, as far back as
+	 * it knows them, into this board's prior hashes.
+	 * <br>
+	 * pre: this board's undo history is empty
+	 * 
+	 * @param board The board being copied. May not be null.
+	 */
+	private void copyPriorHashes(Board board) {
+		int size = Math.min(board.halfmoveClock, board.undoSize + board.priorSize);
+		if (size > priorHashes.length) {
+			priorHashes = new long[size];
+		}
+		for (int i = 0; i < size; i++) {
+			priorHashes[i] = board.getHashPliesAgo(size - i);
+		}
+		priorSize = size;
+	}
+	
+	/**
+	 * Helper method that returns the hash of the position the given number
+	 * of plies before the current one, from the undo history or, past its
+	 * start, from the prior hashes.
+	 * <br>
+	 * pre: 1 <= plies <= undoSize + priorSize
+	 * 
+	 * @param plies How many plies back the position is.
+	 * @return The Zobrist hash of that position.
+	 */
+	private long getHashPliesAgo(int plies) {
+		if (plies <= undoSize) {
+			return undoStack[undoSize - plies].hash;
+		}
+		return priorHashes[priorSize - (plies - undoSize)];
+	}
+	
+	/**
+	 * Helper method for copyFrom() that copies a list of pieces into this
+	 * board's list, reusing its Piece objects, and puts the pieces in their
+	 * spaces.
+	 * 
+	 * @param pieces The pieces to copy. May not be null.
+	 * @param copies This board's list of pieces of the same color. May not be null.
+	 */
+	private void copyPieces(ArrayList<Piece> pieces, ArrayList<Piece> copies) {
+		while (copies.size() > pieces.size()) {
+			copies.remove(copies.size() - 1);
+		}
+		for (int i = 0; i < pieces.size(); i++) {
+			Piece copy;
+			if (i < copies.size()) {
+				copy = copies.get(i);
+				copy.copyFrom(pieces.get(i));
+			} else {
+				copy = new Piece(pieces.get(i));
+				copies.add(copy);
+			}
+			spaces[copy.getRow()][copy.getCol()].setPiece(copy);
+		}
+	}
+	
+	/**
+	 * Creates the pieces in their starting position for the given color.
+	 * @param isWhite A boolean indicating whether to create the white or black pieces.
+	 * @return An ArrayList of the created pieces.
+	 */
+	private ArrayList<Piece> createPieces(boolean isWhite) {
+		ArrayList<Piece> pieces = new ArrayList<Piece>();
+		pieces.addAll(createPawns(isWhite));
+
+		int row = isWhite ? MAX_ROW : MIN_ROW;
+		
+		// create the knights
+		for (int col : KNIGHT_COLUMNS) {
+			Piece piece = new Piece(Piece.PieceType.KNIGHT, isWhite, row, col);
+			pieces.add(piece);
+			spaces[row][col].setPiece(piece);
+			placeOnBitboards(piece, row, col);
+		}
+
+		// create the bishops
+		for (int col : BISHOP_COLUMNS) {
+			Piece piece = new Piece(Piece.PieceType.BISHOP, isWhite, row, col);
+			pieces.add(piece);
+			spaces[row][col].setPiece(piece);
+			placeOnBitboards(piece, row, col);
+		}
+
+		// create the rooks
+		for (int col : ROOK_COLUMNS) {
+			Piece piece = new Piece(Piece.PieceType.ROOK, isWhite, row, col);
+			pieces.add(piece);
+			spaces[row][col].setPiece(piece);
+			placeOnBitboards(piece, row, col);
+		}
+
+		// create the queen
+		Piece piece = new Piece(Piece.PieceType.QUEEN, isWhite, row, QUEEN_COLUMN);
+		pieces.add(piece);
+		spaces[row][QUEEN_COLUMN].setPiece(piece);
+		placeOnBitboards(piece, row, QUEEN_COLUMN);
+
+		// create the king
+		piece = new Piece(Piece.PieceType.KING, isWhite, row, KING_COLUMN);
+		pieces.add(piece);
+		spaces[row][KING_COLUMN].setPiece(piece);
+		placeOnBitboards(piece, row, KING_COLUMN);
+
+		return pieces;
+	}
+
+	/**
+	 * Creates the pawns in their starting position for the specified color.
+	 * 
+	 * @param isWhite A boolean indicating whether to create the white or black pawns.
+	 * @return An ArrayList of the created pawns.
+	 */
+	private ArrayList<Piece> createPawns(boolean isWhite) {
+		ArrayList<Piece> pawns = new ArrayList<Piece>();
+		int row = isWhite ? MAX_ROW - 1 : MIN_ROW + 1;
+		for (int c = 0; c <= Board.MAX_COL; c++) {
+			Piece pawn = new Piece(Piece.PieceType.PAWN, isWhite, row, c);
+			pawns.add(pawn);
+			spaces[row][c].setPiece(pawn);
+			placeOnBitboards(pawn, row, c);
+		}
+		return pawns;
+	}
+	
+	/**
+	 * Returns the table of castling rights that survive a move from or to
+	 * each square. Only the king and rook starting squares clear any rights.
+	 * 
+	 * @return The castling rights mask for each square.
+	 */
+	private static int[] createCastlingRightsMasks() {
+		int[] masks = new int[Bitboard.NUM_SPACES];
+		Arrays.fill(masks, ALL_CASTLING_RIGHTS);
+		masks[Bitboard.square(MAX_ROW, KING_COLUMN)] &= ~(CASTLE_WHITE_KINGSIDE | CASTLE_WHITE_QUEENSIDE);
+		masks[Bitboard.square(MAX_ROW, MAX_COL)] &= ~CASTLE_WHITE_KINGSIDE;
+		masks[Bitboard.square(MAX_ROW, MIN_COL)] &= ~CASTLE_WHITE_QUEENSIDE;
+		masks[Bitboard.square(MIN_ROW, KING_COLUMN)] &= ~(CASTLE_BLACK_KINGSIDE | CASTLE_BLACK_QUEENSIDE);
+		masks[Bitboard.square(MIN_ROW, MAX_COL)] &= ~CASTLE_BLACK_KINGSIDE;
+		masks[Bitboard.square(MIN_ROW, MIN_COL)] &= ~CASTLE_BLACK_QUEENSIDE;
+		return masks;
+	}
+	
+	/**
+	 * Adds the given piece to the bitboards at the given row and column, and
+	 * its scores to the evaluation terms.
+	 * 
+	 * @param piece The piece to add. May not be null.
+	 * @param row The row the piece is on.
+	 * @param col The column the piece is on.
+	 */
+	private void placeOnBitboards(Piece piece, int row, int col) {
+		int square = Bitboard.square(row, col);
+		long bit = Bitboard.bit(square);
+		int index = piece.getIndex();
+		mailbox[square] = index;
+		pieceBitboards[index] |= bit;
+		hash ^= Zobrist.pieceKey(index, square);
+		if (piece.getType() == Piece.PieceType.PAWN) {
+			pawnHash ^= Zobrist.pieceKey(index, square);
+		}
+		middlegameScore += Evaluator.middlegameScore(index, square);
+		endgameScore += Evaluator.endgameScore(index, square);
+		gamePhase += Evaluator.phaseWeight(index);
+		if (piece.isWhite()) {
+			whiteOccupancy |= bit;
+			whiteMaterial += piece.getValue();
+		} else {
+			blackOccupancy |= bit;
+			blackMaterial += piece.getValue();
+		}
+	}
+	
+	/**
+	 * Removes the given piece from the bitboards at the given row and column,
+	 * and its scores from the evaluation terms.
+	 * 
+	 * @param piece The piece to remove. May not be null.
+	 * @param row The row the piece is on.
+	 * @param col The column the piece is on.
+	 */
+	private void removeFromBitboards(Piece piece, int row, int col) {
+		int square = Bitboard.square(row, col);
+		long bit = ~Bitboard.bit(square);
+		int index = piece.getIndex();
+		mailbox[square] = Piece.NO_INDEX;
+		pieceBitboards[index] &= bit;
+		hash ^= Zobrist.pieceKey(index, square);
+		if (piece.getType() == Piece.PieceType.PAWN) {
+			pawnHash ^= Zobrist.pieceKey(index, square);
+		}
+		middlegameScore -= Evaluator.middlegameScore(index, square);
+		endgameScore -= Evaluator.endgameScore(index, square);
+		gamePhase -= Evaluator.phaseWeight(index);
+		if (piece.isWhite()) {
+			whiteOccupancy &= bit;
+			whiteMaterial -= piece.getValue();
+		} else {
+			blackOccupancy &= bit;
+			blackMaterial -= piece.getValue();
+		}
+	}
+	
+	/**
+	 * Returns the bitboard of the spaces occupied by pieces of the given type
+	 * and color.
+	 * 
+	 * @param type The type of piece.
+	 * @param isWhite A boolean indicating whether to get white or black pieces.
+	 * @return The bitboard of the pieces of that type and color.
+	 */
+	public long getBitboard(Piece.PieceType type, boolean isWhite) {
+		return pieceBitboards[Piece.index(type, isWhite)];
+	}
+	
+	/**
+	 * Returns the bitboard of the spaces occupied by the given color.
+	 * 
+	 * @param isWhite A boolean indicating whether to get white or black's spaces.
+	 * @return The bitboard of the spaces occupied by that color.
+	 */
+	public long getOccupancy(boolean isWhite) {
+		return isWhite ? whiteOccupancy : blackOccupancy;
+	}
+	
+	/**
+	 * Returns the bitboard of all occupied spaces.
+	 * 
+	 * @return The bitboard of all occupied spaces.
+	 */
+	public long getOccupancy() {
+		return whiteOccupancy | blackOccupancy;
+	}
+	
+	/**
+	 * Returns the index of the piece on the given square.
+	 * 
+	 * @param square The square to look at. 0 <= square < Bitboard.NUM_SPACES
+	 * @return The index of the piece on the square, or Piece.NO_INDEX if it is empty.
+	 */
+	public int getPieceIndex(int square) {
+		return mailbox[square];
+	}
+	
+	/**
+	 * Returns the Zobrist hash of the current position. The hash is kept up
+	 * to date as moves are made and undone.
+	 * 
+	 * @return The hash of the position.
+	 */
+	public long getHash() {
+		return hash;
+	}
+	
+	/**
+	 * Returns the Zobrist hash of the pawns in the current position, which
+	 * is the same for every position with the same pawns on the same squares
+	 * and 0 for a position without pawns. Like getHash(), it is kept up to
+	 * date as moves are made and undone.
+	 * 
+	 * @return The hash of the pawns.
+	 */
+	public long getPawnHash() {
+		return pawnHash;
+	}
+	
+	/**
+	 * Computes the Zobrist hash of the current position from scratch. This
+	 * is much slower than getHash() and is meant for verifying that the
+	 * incremental hash is correct.
+	 * 
+	 * @return The hash of the position.
+	 */
+	public long computeHash() {
+		long result = Bitboard.EMPTY;
+		for (int square = 0; square < Bitboard.NUM_SPACES; square++) {
+			if (mailbox[square] != Piece.NO_INDEX) {
+				result ^= Zobrist.pieceKey(mailbox[square], square);
+			}
+		}
+		if (!whiteToMove) {
+			result ^= Zobrist.blackToMoveKey();
+		}
+		result ^= Zobrist.castlingKey(castlingRights);
+		if (enPassantSquare != NO_SQUARE) {
+			result ^= Zobrist.enPassantKey(Bitboard.col(enPassantSquare));
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns true if white is to move in the current position.
+	 * 
+	 * @return True if white is to move, false if black is.
+	 */
+	public boolean isWhiteToMove() {
+		return whiteToMove;
+	}
+	
+	/**
+	 * Returns the castling rights still available in the current position.
+	 * A right is lost once the king or the rook involved moves or the rook
+	 * is captured.
+	 * 
+	 * @return The castling rights, a combination of the CASTLE_ flags.
+	 */
+	public int getCastlingRights() {
+		return castlingRights;
+	}
+	
+	/**
+	 * Returns the square a pawn skipped over if the last move was a double
+	 * pawn push.
+	 * 
+	 * @return The en passant square, or NO_SQUARE.
+	 */
+	public int getEnPassantSquare() {
+		return enPassantSquare;
+	}
+	
+	/**
+	 * Returns the number of moves made since the last capture or pawn move.
+	 * 
+	 * @return The halfmove clock.
+	 */
+	public int getHalfmoveClock() {
+		return halfmoveClock;
+	}
+	
+	/**
+	 * Returns the number of the current full move. It starts at 1 and goes
+	 * up after each of black's moves.
+	 * 
+	 * @return The fullmove number.
+	 */
+	public int getFullmoveNumber() {
+		return fullmoveNumber;
+	}
+	
+	/**
+	 * Returns true if the given row and column are on the board.
+	 * 
+	 * @param row The row to check.
+	 * @param col The column to check.
+	 * @return True if the row and column are on the board.
+	 */
+	public boolean isValid(int row, int col) {
+		return row >= MIN_ROW && row <= MAX_ROW && col >= MIN_COL && col <= MAX_COL;
+	}
+
+	/**
+	 * Return the Space at the specified row and col. <br>
+	 * pre: MIN_ROW <= row <= MAX_ROW && MIN_COL <= col <= MAX_COL
+	 * 
+	 * @param row
+	 *            The row to get the Space at.
+	 * @param col
+	 *            The col to get the Space at.
+	 * @return The Space at the specified row and col
+	 */
+	public Space getSpace(int row, int col) {
+		// check if space is off board
+		if (row < MIN_ROW || row > MAX_ROW || col < MIN_COL || col > MAX_COL)
+			return null;
+
+		return spaces[row][col];
+	}
+	
+	/**
+	 * Returns an ArrayList of Move objects that represent the legal moves for
+	 * the specified Piece and Board. A pawn that reaches the last row has
+	 * one Move for each destination, a promotion to a queen that can be
+	 * changed with Move.withPromotion().
+	 * 
+	 * @param piece The Piece to get Moves for. May not be null.
+	 * @param checkCastling A boolean indicating whether to check for castling moves.
+	 * @return An ArrayList of legal Moves for the given piece.
+	 */
+	public ArrayList<Move> findLegalMoves(Piece piece, boolean checkCastling) {
+		ArrayList<Move> legalMoves = new ArrayList<Move>();
+		if (piece.isCaptured()) {
+			return legalMoves;
+		}
+		findPinsAndChecks(piece.isWhite());
+		int count = addLegalMoves(moveBuffer, 0, Bitboard.square(piece.getRow(), piece.getCol()),
+				piece.getType(), piece.isWhite(), checkCastling);
+		addMoveViews(legalMoves, moveBuffer, count);
+		return legalMoves;
+	}
+	
+	/**
+	 * Returns an ArrayList of all legal moves for the specified color, as
+	 * Move objects. See findLegalMoves for how promotions are listed.
+	 * 
+	 * @param isWhite A boolean indicating whether to find moves for white or black.
+	 * @return An ArrayList of all legal Moves for the given color.
+	 */
+	public ArrayList<Move> findAllLegalMoves(boolean isWhite) {
+		ArrayList<Move> legalMoves = new ArrayList<Move>();
+		int count = generateLegalMoves(isWhite, moveBuffer);
+		addMoveViews(legalMoves, moveBuffer, count);
+		return legalMoves;
+	}
+	
+	/**
+	 * Writes every legal move for the specified color into the given buffer
+	 * as packed moves (see PackedMove) and returns how many were written.
+	 * Nothing is allocated, so search code can keep one buffer per ply. The
+	 * pins and checks are computed once for the position rather than once
+	 * per piece. Promotions are written once for each promotion type.
+	 * 
+	 * @param isWhite A boolean indicating whether to find moves for white or black.
+	 * @param moves The buffer to write the moves into, starting at index 0.
+	 *            Must have a length of at least MAX_MOVES.
+	 * @return The number of moves written.
+	 */
+	public int generateLegalMoves(boolean isWhite, int[] moves) {
+		findPinsAndChecks(isWhite);
+		int count = 0;
+		for (Piece.PieceType type : PIECE_TYPES) {
+			long pieces = getBitboard(type, isWhite);
+			while (pieces != 0) {
+				int square = Long.numberOfTrailingZeros(pieces);
+				pieces &= pieces - 1;
+				count = addLegalMoves(moves, count, square, type, isWhite, true);
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Returns whether the given packed move is a legal move for the side to
+	 * move, such as a move remembered from another position that may not
+	 * apply to this one. Only the moves of the piece on the move's source
+	 * square are generated.
+	 * 
+	 * @param move The packed move to check.
+	 * @return True if the move is legal in the current position.
+	 */
+	public boolean isLegalMove(int move) {
+		if (move == PackedMove.NULL_MOVE) {
+			return false;
+		}
+		int from = PackedMove.getFrom(move);
+		int piece = mailbox[from];
+		if (piece != PackedMove.getPiece(move) || Piece.isWhiteIndex(piece) != whiteToMove) {
+			return false;
+		}
+		findPinsAndChecks(whiteToMove);
+		int count = addLegalMoves(moveBuffer, 0, from, Piece.typeOf(piece), whiteToMove, true);
+		for (int i = 0; i < count; i++) {
+			if (moveBuffer[i] == move) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Helper method for the methods that return Move objects that adds a
+	 * Move for each of the packed moves. Under-promotions are skipped, as a
+	 * Move's promotion type can be changed with Move.withPromotion().
+	 * 
+	 * @param moveViews The list to add the Moves to. May not be null.
+	 * @param moves The packed moves. May not be null.
+	 * @param count The number of packed moves to read.
+	 */
+	private void addMoveViews(ArrayList<Move> moveViews, int[] moves, int count) {
+		for (int i = 0; i < count; i++) {
+			Piece.PieceType promotion = PackedMove.getPromotion(moves[i]);
+			if (promotion == null || promotion == Piece.PieceType.QUEEN) {
+				moveViews.add(new Move(moves[i], this));
+			}
+		}
+	}
+	
+	/**
+	 * Return a boolean indicating whether making the specified move
+	 * causes check.
+	 * 
+	 * @param move The move to test for check. May not be null.
+	 * @return True if making the move would cause check, false if not.
+	 */
+	public boolean isCheckAfterMove(Move move) {
+		if (move == null) {
+			throw new IllegalArgumentException("The move to check may not be null");
+		}
+
+		// make the move, see if it is check, then undo the move
+		makeTestMove(move);
+		boolean isCheck = isCheck(move.getMovedPiece().isWhite());
+		undoMove(move);
+		return isCheck;
+	}
+	
+	/**
+	 * Returns true if the specified team is checkmated, false otherwise.
+	 * @param isWhite A boolean indicating whether to check for mate on white or black.
+	 * @return True if the specified team is checkmated.
+	 */
+	public boolean isCheckMate(boolean isWhite) {
+		return isCheck(isWhite) && !hasAnyLegalMove(isWhite);
+	}
+	
+	/**
+	 * Returns true if the specified team is not in check but has no legal
+	 * move, false otherwise.
+	 * @param isWhite A boolean indicating whether to check for stalemate on white or black.
+	 * @return True if the specified team is stalemated.
+	 */
+	public boolean isStaleMate(boolean isWhite) {
+		return !isCheck(isWhite) && !hasAnyLegalMove(isWhite);
+	}
+	
+	/**
+	 * Returns whether the given color has at least one legal move. This
+	 * stops at the first legal move it finds, trying the king's steps and
+	 * the pawns first since they are the cheapest to check. Castling is
+	 * never needed, since a king that can castle can also step towards
+	 * the rook.
+	 * 
+	 * @param isWhite A boolean indicating whether to check white or black.
+	 * @return True if the color has a legal move, false if not.
+	 */
+	public boolean hasAnyLegalMove(boolean isWhite) {
+		findPinsAndChecks(isWhite);
+		int kingSquare = Long.numberOfTrailingZeros(getBitboard(Piece.PieceType.KING, isWhite));
+		if (addLegalKingMoves(moveBuffer, 0, kingSquare, isWhite, false) > 0) {
+			return true;
+		}
+
+		// only the king can answer a double check
+		if (checkMask == Bitboard.EMPTY) {
+			return false;
+		}
+		for (Piece.PieceType type : PIECE_TYPES) {
+			if (type == Piece.PieceType.KING) {
+				continue;
+			}
+			long pieces = getBitboard(type, isWhite);
+			while (pieces != 0) {
+				int square = Long.numberOfTrailingZeros(pieces);
+				pieces &= pieces - 1;
+				if (addLegalMoves(moveBuffer, 0, square, type, isWhite, false) > 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns the state of the game for the side to move. A side with no
+	 * legal move is checkmated or stalemated, which takes precedence over
+	 * the other ways to draw. Repetitions are found from the positions in
+	 * the undo history and those carried over by copyFrom(), so only moves
+	 * made since the Board was set up or loaded with setFen() are counted.
+	 * 
+	 * @return The result of the game, or GameResult.IN_PROGRESS.
+	 */
+	public GameResult getGameResult() {
+		if (!hasAnyLegalMove(whiteToMove)) {
+			return checkers != Bitboard.EMPTY ? GameResult.CHECKMATE : GameResult.STALEMATE;
+		}
+		if (halfmoveClock >= FIFTY_MOVE_RULE_PLIES) {
+			return GameResult.FIFTY_MOVE_RULE;
+		}
+		if (countRepetitions() >= 2) {
+			return GameResult.THREEFOLD_REPETITION;
+		}
+		if (isInsufficientMaterial()) {
+			return GameResult.INSUFFICIENT_MATERIAL;
+		}
+		return GameResult.IN_PROGRESS;
+	}
+	
+	/**
+	 * Returns whether the current position has appeared before with the
+	 * same side to move. Search treats a single repetition as a draw, since
+	 * a side that could do better would not repeat.
+	 * 
+	 * @return True if the position is a repetition, false if not.
+	 */
+	public boolean isRepetition() {
+		return countRepetitions() > 0;
+	}
+	
+	/**
+	 * Helper method that counts how many times the current position appeared
+	 * earlier in the undo history or before a copy. Only positions with the
+	 * same side to move since the last capture or pawn move can be the same,
+	 * so the search goes back two plies at a time and stops at the halfmove
+	 * clock.
+	 * 
+	 * @return The number of earlier occurrences of the current position.
+	 */
+	private int countRepetitions() {
+		int repetitions = 0;
+		int oldest = Math.min(halfmoveClock, undoSize + priorSize);
+		for (int plies = 2; plies <= oldest; plies += 2) {
+			if (getHashPliesAgo(plies) == hash) {
+				repetitions++;
+			}
+		}
+		return repetitions;
+	}
+	
+	/**
+	 * Returns whether neither side has enough material to checkmate: only
+	 * kings, kings and a single knight or bishop, or kings and any number
+	 * of bishops that all stand on spaces of the same color.
+	 * 
+	 * @return True if neither side can checkmate, false otherwise.
+	 */
+	public boolean isInsufficientMaterial() {
+		long pawnsRooksAndQueens = Bitboard.EMPTY;
+		for (Piece.PieceType type : MATING_TYPES) {
+			pawnsRooksAndQueens |= getBitboard(type, true) | getBitboard(type, false);
+		}
+		if (pawnsRooksAndQueens != Bitboard.EMPTY) {
+			return false;
+		}
+
+		long knights = getBitboard(Piece.PieceType.KNIGHT, true) | getBitboard(Piece.PieceType.KNIGHT, false);
+		long bishops = getBitboard(Piece.PieceType.BISHOP, true) | getBitboard(Piece.PieceType.BISHOP, false);
+		if (Long.bitCount(knights | bishops) <= 1) {
+			return true;
+		}
+		return knights == Bitboard.EMPTY
+				&& ((bishops & Bitboard.LIGHT_SQUARES) == Bitboard.EMPTY || (bishops & ~Bitboard.LIGHT_SQUARES) == Bitboard.EMPTY);
+	}
+	
+	/**
+	 * Counts the leaf nodes of the legal move tree of the given depth from
+	 * the current position, with the side to move moving first. The counts
+	 * for standard positions are well known, so this is used to verify and
+	 * time the move generator. The board is left unchanged.
+	 * 
+	 * @param depth The number of plies to search. depth >= 0
+	 * @return The number of positions reached after depth plies.
+	 */
+	public long perft(int depth) {
+		if (depth < 0) {
+			throw new IllegalArgumentException("The depth may not be negative: " + depth);
+		}
+		return perft(depth, new int[depth + 1][MAX_MOVES]);
+	}
+	
+	/**
+	 * Helper method for perft() and divide() that uses one move buffer per ply.
+	 */
+	private long perft(int depth, int[][] moveBuffers) {
+		if (depth == 0) {
+			return 1;
+		}
+		int[] moves = moveBuffers[depth];
+		int count = generateLegalMoves(whiteToMove, moves);
+
+		// the moves at the last ply are legal, so they can be counted without making them
+		if (depth == 1) {
+			return count;
+		}
+		long nodes = 0;
+		for (int i = 0; i < count; i++) {
+			makeMove(moves[i]);
+			nodes += perft(depth - 1, moveBuffers);
+			undoMove(moves[i]);
+		}
+		return nodes;
+	}
+	
+	/**
+	 * Returns the perft count below each legal move of the side to move,
+	 * which narrows a wrong perft count down to the move that causes it.
+	 * 
+	 * @param depth The number of plies to search, including the first move. depth >= 1
+	 * @return A map from each move in coordinate notation (see
+	 *         PackedMove.toString) to its node count, in generation order.
+	 */
+	public Map<String, Long> divide(int depth) {
+		if (depth < 1) {
+			throw new IllegalArgumentException("The depth must be at least 1: " + depth);
+		}
+		int[][] moveBuffers = new int[depth + 1][MAX_MOVES];
+		int[] moves = moveBuffers[depth];
+		int count = generateLegalMoves(whiteToMove, moves);
+		Map<String, Long> result = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < count; i++) {
+			makeMove(moves[i]);
+			result.put(PackedMove.toString(moves[i]), perft(depth - 1, moveBuffers));
+			undoMove(moves[i]);
+		}
+		return result;
+	}
+	
+	/**
+	 * Helper method for the legal move generators that finds the pieces
+	 * checking the given color's king and the pieces pinned to it. <br>
+	 * post: checkers holds the enemy pieces giving check, checkMask holds
+	 * the spaces a non-king move must land on to resolve any check, pinned
+	 * holds the given color's pinned pieces and pinRays holds the spaces
+	 * each pinned piece may move along.
+	 * 
+	 * @param isWhite A boolean indicating whether to find pins and checks on white or black.
+	 */
+	private void findPinsAndChecks(boolean isWhite) {
+		int kingSquare = Long.numberOfTrailingZeros(getBitboard(Piece.PieceType.KING, isWhite));
+		long ownOccupancy = getOccupancy(isWhite);
+		long enemyOccupancy = getOccupancy(!isWhite);
+
+		// a single check can be blocked or captured, but a
+		// double check can only be answered by moving the king
+		checkers = findAttackers(kingSquare, getOccupancy()) & enemyOccupancy;
+		if (checkers == Bitboard.EMPTY) {
+			checkMask = ~Bitboard.EMPTY;
+		} else if ((checkers & (checkers - 1)) == 0) {
+			checkMask = checkers | Bitboard.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+		} else {
+			checkMask = Bitboard.EMPTY;
+		}
+
+		// Look through our own pieces for enemy sliders lined up with the king.
+		// If exactly one of our pieces sits between, it is pinned to that line.
+		long enemyQueens = getBitboard(Piece.PieceType.QUEEN, !isWhite);
+		long snipers = (Bitboard.rookAttacks(kingSquare, enemyOccupancy)
+				& (getBitboard(Piece.PieceType.ROOK, !isWhite) | enemyQueens))
+				| (Bitboard.bishopAttacks(kingSquare, enemyOccupancy)
+				& (getBitboard(Piece.PieceType.BISHOP, !isWhite) | enemyQueens));
+		pinned = Bitboard.EMPTY;
+		while (snipers != 0) {
+			int sniperSquare = Long.numberOfTrailingZeros(snipers);
+			snipers &= snipers - 1;
+			long ray = Bitboard.between(kingSquare, sniperSquare);
+			long blockers = ray & ownOccupancy;
+			if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+				pinned |= blockers;
+				pinRays[Long.numberOfTrailingZeros(blockers)] = ray | Bitboard.bit(sniperSquare);
+			}
+		}
+	}
+	
+	/**
+	 * Helper method for the legal move generators that writes the legal
+	 * moves of the piece on the given square into the buffer. <br>
+	 * pre: findPinsAndChecks() has been called for the piece's color in the
+	 * current position.
+	 * 
+	 * @param moves The buffer to write the moves into. May not be null.
+	 * @param count The number of moves already in the buffer.
+	 * @param square The square of the piece to get moves for.
+	 * @param type The type of the piece.
+	 * @param isWhite A boolean indicating whether the piece is white.
+	 * @param checkCastling A boolean indicating whether to check for castling moves.
+	 * @return The number of moves in the buffer after writing.
+	 */
+	private int addLegalMoves(int[] moves, int count, int square, Piece.PieceType type, boolean isWhite,
+			boolean checkCastling) {
+		if (type == Piece.PieceType.KING) {
+			return addLegalKingMoves(moves, count, square, isWhite, checkCastling);
+		}
+
+		// other pieces must resolve any check and stay on their pin line
+		long legalSpaces = checkMask & ~getOccupancy(isWhite);
+		if ((pinned & Bitboard.bit(square)) != 0) {
+			legalSpaces &= pinRays[square];
+		}
+		
+		if (type == Piece.PieceType.PAWN) {
+			return addLegalPawnMoves(moves, count, square, isWhite, legalSpaces);
+		}
+		return addMoves(moves, count, square, Piece.index(type, isWhite),
+				findAttackedSpaces(square, type, isWhite) & legalSpaces);
+	}
+	
+	/**
+	 * Writes the legal moves for the pawn on the given square into the
+	 * buffer. Diagonal moves are only included if they capture a piece of
+	 * the opposite color.
+	 * 
+	 * @param moves The buffer to write the moves into. May not be null.
+	 * @param count The number of moves already in the buffer.
+	 * @param square The square of the pawn.
+	 * @param isWhite A boolean indicating whether the pawn is white.
+	 * @param legalSpaces A bitboard of the spaces the pawn may move to
+	 *            without leaving its king in check.
+	 * @return The number of moves in the buffer after writing.
+	 */
+	private int addLegalPawnMoves(int[] moves, int count, int square, boolean isWhite, long legalSpaces) {
+		int row = Bitboard.row(square);
+		int col = Bitboard.col(square);
+		int rowChange = isWhite ? -1 : 1;
+		int pawn = Piece.index(Piece.PieceType.PAWN, isWhite);
+		long occupancy = getOccupancy();
+
+		// if space above is empty, add as possible move
+		if (isValid(row + rowChange, col)) {
+			int dest = Bitboard.square(row + rowChange, col);
+			if ((occupancy & Bitboard.bit(dest)) == 0) {
+				if ((legalSpaces & Bitboard.bit(dest)) != 0) {
+					count = addPawnMove(moves, count, square, dest, pawn, Piece.NO_INDEX);
+				}
+
+				// check if still on starting row
+				final int startingRow = isWhite ? WHITE_PAWN_START_ROW : BLACK_PAWN_START_ROW;
+				if (row == startingRow) {
+					// if space two above is empty, add as a possible move
+					dest = Bitboard.square(row + 2 * rowChange, col);
+					if ((occupancy & Bitboard.bit(dest)) == 0 && (legalSpaces & Bitboard.bit(dest)) != 0) {
+						moves[count++] = PackedMove.encode(square, dest, pawn, Piece.NO_INDEX, PackedMove.DOUBLE_PAWN_PUSH);
+					}
+				}
+			}
+		}
+
+		// the diagonal spaces are only moves if they hold an enemy piece
+		long captures = Bitboard.pawnAttacks(square, isWhite) & getOccupancy(!isWhite) & legalSpaces;
+		while (captures != 0) {
+			int dest = Long.numberOfTrailingZeros(captures);
+			captures &= captures - 1;
+			count = addPawnMove(moves, count, square, dest, pawn, mailbox[dest]);
+		}
+		
+		int enPassant = findEnPassantMove(square, isWhite);
+		if (enPassant != PackedMove.NULL_MOVE && isLegalEnPassant(enPassant)) {
+			moves[count++] = enPassant;
+		}
+		return count;
+	}
+	
+	/**
+	 * Helper method for addLegalPawnMoves that writes a pawn move into the
+	 * buffer, once for each promotion type if the pawn reaches the last row.
+	 * 
+	 * @return The number of moves in the buffer after writing.
+	 */
+	private int addPawnMove(int[] moves, int count, int from, int to, int pawn, int captured) {
+		int move = PackedMove.encode(from, to, pawn, captured, PackedMove.NORMAL);
+		int row = Bitboard.row(to);
+		if (row == MIN_ROW || row == MAX_ROW) {
+			for (Piece.PieceType promotion : PROMOTION_TYPES) {
+				moves[count++] = PackedMove.withPromotion(move, promotion);
+			}
+		} else {
+			moves[count++] = move;
+		}
+		return count;
+	}
+	
+	/**
+	 * Returns the available en passant Move for a pawn (there will always be
+	 * at most only one). The move may still leave the pawn's king in check.
+	 * 
+	 * @param pawn The pawn to find en passant for. May not be null.
+	 * @return The available en passant Move or null if none exist.
+	 */
+	public Move findAvailableEnPassantMove(Piece pawn) {
+		int move = findEnPassantMove(Bitboard.square(pawn.getRow(), pawn.getCol()), pawn.isWhite());
+		return move == PackedMove.NULL_MOVE ? null : new Move(move, this);
+	}
+	
+	/**
+	 * Helper method that returns the en passant capture available to the
+	 * pawn on the given square as a packed move. A capture is available if
+	 * the pawn attacks the en passant square left by the last move.
+	 * 
+	 * @param square The square of the pawn.
+	 * @param isWhite A boolean indicating whether the pawn is white.
+	 * @return The packed en passant move, or PackedMove.NULL_MOVE if none exists.
+	 */
+	private int findEnPassantMove(int square, boolean isWhite) {
+		if (enPassantSquare == NO_SQUARE
+				|| (Bitboard.pawnAttacks(square, isWhite) & Bitboard.bit(enPassantSquare)) == 0) {
+			return PackedMove.NULL_MOVE;
+		}
+
+		// the pawn being captured is beside this pawn, not on the en passant square
+		int enemyPawn = Piece.index(Piece.PieceType.PAWN, !isWhite);
+		if (mailbox[Bitboard.square(Bitboard.row(square), Bitboard.col(enPassantSquare))] != enemyPawn) {
+			return PackedMove.NULL_MOVE;
+		}
+		return PackedMove.encode(square, enPassantSquare, Piece.index(Piece.PieceType.PAWN, isWhite), enemyPawn,
+				PackedMove.EN_PASSANT);
+	}
+	
+	/**
+	 * Helper method for addLegalPawnMoves that returns whether an en passant
+	 * capture leaves the capturing side's king safe. En passant empties two
+	 * spaces on the same row, so the check and pin masks cannot describe it;
+	 * instead the king's attackers are recomputed with the pawns moved.
+	 * 
+	 * @param move The packed en passant move to test.
+	 * @return True if the move does not leave the king in check.
+	 */
+	private boolean isLegalEnPassant(int move) {
+		boolean isWhite = Piece.isWhiteIndex(PackedMove.getPiece(move));
+		int from = PackedMove.getFrom(move);
+		int to = PackedMove.getTo(move);
+		long capturedBit = Bitboard.bit(Bitboard.square(Bitboard.row(from), Bitboard.col(to)));
+		long occupancy = getOccupancy() ^ Bitboard.bit(from) ^ Bitboard.bit(to) ^ capturedBit;
+		int kingSquare = Long.numberOfTrailingZeros(getBitboard(Piece.PieceType.KING, isWhite));
+		long attackers = findAttackers(kingSquare, occupancy) & getOccupancy(!isWhite) & ~capturedBit;
+		return attackers == Bitboard.EMPTY;
+	}
+	
+	/**
+	 * Writes the legal moves for the king on the given square into the buffer.
+	 * 
+	 * @param moves The buffer to write the moves into. May not be null.
+	 * @param count The number of moves already in the buffer.
+	 * @param kingSquare The square of the king.
+	 * @param pieceIsWhite A boolean indicating whether the king is white.
+	 * @param checkCastling A boolean that indicates whether to check for castling moves.
+	 * @return The number of moves in the buffer after writing.
+	 */
+	private int addLegalKingMoves(int[] moves, int count, int kingSquare, boolean pieceIsWhite, boolean checkCastling) {
+		int row = Bitboard.row(kingSquare);
+		int kingIndex = Piece.index(Piece.PieceType.KING, pieceIsWhite);
+
+		// The king may step to any space that is not attacked. The king is
+		// removed from the occupancy so it cannot hide behind itself from a slider.
+		long occupancyWithoutKing = getOccupancy() & ~Bitboard.bit(kingSquare);
+		long targets = Bitboard.KING_ATTACKS[kingSquare] & ~getOccupancy(pieceIsWhite);
+		long safeTargets = Bitboard.EMPTY;
+		while (targets != 0) {
+			int square = Long.numberOfTrailingZeros(targets);
+			targets &= targets - 1;
+			if (!isSquareAttacked(square, !pieceIsWhite, occupancyWithoutKing)) {
+				safeTargets |= Bitboard.bit(square);
+			}
+		}
+		count = addMoves(moves, count, kingSquare, kingIndex, safeTargets);
+
+		// Now we check for castling. Four things must be true to castle.
+		// 1: King and rook involved cannot have moved (the castling right)
+		// 2: Spaces involved are empty
+		// 3: King is not in check
+		// 4: Spaces between are not in check
+		// The king can castle two directions
+
+		int kingsideRight = pieceIsWhite ? CASTLE_WHITE_KINGSIDE : CASTLE_BLACK_KINGSIDE;
+		int queensideRight = pieceIsWhite ? CASTLE_WHITE_QUEENSIDE : CASTLE_BLACK_QUEENSIDE;
+		if (checkCastling && (castlingRights & (kingsideRight | queensideRight)) != 0 && checkers == Bitboard.EMPTY) {
+			long occupancy = getOccupancy();
+
+			// Check kingside first
+			int intermediateSquare = Bitboard.square(row, KINGSIDE_CASTLE[0]);
+			int destSquare = Bitboard.square(row, KINGSIDE_CASTLE[1]);
+			long between = Bitboard.bit(intermediateSquare) | Bitboard.bit(destSquare);
+			if ((castlingRights & kingsideRight) != 0 && (occupancy & between) == 0
+					&& !isSquareAttacked(intermediateSquare, !pieceIsWhite)
+					&& !isSquareAttacked(destSquare, !pieceIsWhite))
+				moves[count++] = PackedMove.encode(kingSquare, destSquare, kingIndex, Piece.NO_INDEX, PackedMove.CASTLE);
+
+			// Now check queenside
+			intermediateSquare = Bitboard.square(row, QUEENSIDE_CASTLE[1]);
+			destSquare = Bitboard.square(row, QUEENSIDE_CASTLE[2]);
+			between = Bitboard.bit(Bitboard.square(row, QUEENSIDE_CASTLE[0]))
+					| Bitboard.bit(intermediateSquare) | Bitboard.bit(destSquare);
+			if ((castlingRights & queensideRight) != 0 && (occupancy & between) == 0
+					&& !isSquareAttacked(intermediateSquare, !pieceIsWhite)
+					&& !isSquareAttacked(destSquare, !pieceIsWhite))
+				moves[count++] = PackedMove.encode(kingSquare, destSquare, kingIndex, Piece.NO_INDEX, PackedMove.CASTLE);
+		}
+		return count;
+	}
+	
+	/**
+	 * Helper method for the move generators that writes a move from the
+	 * given square to each space in the targets bitboard.
+	 * 
+	 * @param moves The buffer to write the moves into. May not be null.
+	 * @param count The number of moves already in the buffer.
+	 * @param from The square the piece moves from.
+	 * @param piece The index of the piece that is moving.
+	 * @param targets A bitboard of the spaces the piece can move to.
+	 * @return The number of moves in the buffer after writing.
+	 */
+	private int addMoves(int[] moves, int count, int from, int piece, long targets) {
+		while (targets != 0) {
+			int to = Long.numberOfTrailingZeros(targets);
+			targets &= targets - 1;
+			moves[count++] = PackedMove.encode(from, to, piece, mailbox[to], PackedMove.NORMAL);
+		}
+		return count;
+	}
+	
+	/**
+	 * Returns the material the side to move wins or loses if it makes the
+	 * given move and both sides then keep capturing on the destination square
+	 * with their least valuable piece, each side stopping when capturing
+	 * again would lose material. Pieces lined up behind an attacker, such as
+	 * a rook behind a rook or a bishop behind a pawn, join in as the pieces
+	 * in front of them capture. No moves are made. Pins are ignored, and a
+	 * king only captures if the square is no longer attacked. <br>
+	 * pre: move is a legal move in the current position
+	 * 
+	 * @param move The packed move to evaluate.
+	 * @return The material won by the move, in pawns (see
+	 *         Piece.PieceType.getValue()). 0 for a quiet move that cannot be
+	 *         taken, negative if the move loses material.
+	 */
+	public int staticExchangeEvaluation(int move) {
+		int from = PackedMove.getFrom(move);
+		int to = PackedMove.getTo(move);
+		long occupancy = getOccupancy() & ~Bitboard.bit(from);
+		int[] gain = exchangeGains;
+		gain[0] = 0;
+		if (PackedMove.isEnPassant(move)) {
+			gain[0] = Piece.PieceType.PAWN.getValue();
+			occupancy &= ~Bitboard.bit(Bitboard.square(Bitboard.row(from), Bitboard.col(to)));
+		} else if (PackedMove.isCapture(move)) {
+			gain[0] = exchangeValue(Piece.typeOf(PackedMove.getCaptured(move)));
+		}
+
+		// the piece now standing on the square is the next to be captured
+		Piece.PieceType onSquare = Piece.typeOf(PackedMove.getPiece(move));
+		Piece.PieceType promotion = PackedMove.getPromotion(move);
+		if (promotion != null) {
+			gain[0] += promotion.getValue() - Piece.PieceType.PAWN.getValue();
+			onSquare = promotion;
+		}
+
+		boolean sideIsWhite = Piece.isWhiteIndex(PackedMove.getPiece(move));
+		long attackers = findAttackers(to, occupancy) & occupancy;
+		int depth = 0;
+		while (true) {
+			// what the last capture gains if the piece that made it is taken
+			depth++;
+			gain[depth] = exchangeValue(onSquare) - gain[depth - 1];
+
+			// the other side captures with its least valuable attacker
+			sideIsWhite = !sideIsWhite;
+			long sideAttackers = attackers & getOccupancy(sideIsWhite);
+			if (sideAttackers == Bitboard.EMPTY) {
+				break;
+			}
+			long attacker = Bitboard.EMPTY;
+			for (Piece.PieceType type : PIECE_TYPES) {
+				long pieces = sideAttackers & getBitboard(type, sideIsWhite);
+				if (pieces != Bitboard.EMPTY) {
+					onSquare = type;
+					attacker = pieces & -pieces;
+					break;
+				}
+			}
+
+			// removing the attacker may reveal a slider behind it
+			occupancy &= ~attacker;
+			attackers = findAttackers(to, occupancy) & occupancy;
+		}
+
+		// Each side only captures if it does not lose by doing so. The last
+		// gain is for a capture that was never made, so it is skipped. Every
+		// capture that can be made is in the list, so the result is the
+		// exact material balance and not only its sign.
+		while (--depth > 0) {
+			gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+		}
+		return gain[0];
+	}
+	
+	/**
+	 * Helper method for staticExchangeEvaluation() that returns the value of
+	 * a piece in an exchange. The king is worth more than everything else
+	 * together, so that a capture that leaves the king to be taken is never
+	 * worth making.
+	 */
+	private static int exchangeValue(Piece.PieceType type) {
+		return type == Piece.PieceType.KING ? EXCHANGE_KING_VALUE : type.getValue();
+	}
+	
+	/**
+	 * Returns a bitboard of all pieces, of either color, that attack the
+	 * given square if the occupied spaces were the given occupancy.
+	 * 
+	 * @param square The square to find attackers for. 0 <= square < Bitboard.NUM_SPACES
+	 * @param occupancy The occupied spaces that block sliding pieces.
+	 * @return A bitboard of the pieces attacking the square.
+	 */
+	private long findAttackers(int square, long occupancy) {
+		long bishopsAndQueens = getBitboard(Piece.PieceType.BISHOP, true) | getBitboard(Piece.PieceType.BISHOP, false)
+				| getBitboard(Piece.PieceType.QUEEN, true) | getBitboard(Piece.PieceType.QUEEN, false);
+		long rooksAndQueens = getBitboard(Piece.PieceType.ROOK, true) | getBitboard(Piece.PieceType.ROOK, false)
+				| getBitboard(Piece.PieceType.QUEEN, true) | getBitboard(Piece.PieceType.QUEEN, false);
+
+		// a white pawn attacks the square from where a black pawn on the square would attack
+		return (Bitboard.BLACK_PAWN_ATTACKS[square] & getBitboard(Piece.PieceType.PAWN, true))
+				| (Bitboard.WHITE_PAWN_ATTACKS[square] & getBitboard(Piece.PieceType.PAWN, false))
+				| (Bitboard.KNIGHT_ATTACKS[square]
+						& (getBitboard(Piece.PieceType.KNIGHT, true) | getBitboard(Piece.PieceType.KNIGHT, false)))
+				| (Bitboard.KING_ATTACKS[square]
+						& (getBitboard(Piece.PieceType.KING, true) | getBitboard(Piece.PieceType.KING, false)))
+				| (Bitboard.bishopAttacks(square, occupancy) & bishopsAndQueens)
+				| (Bitboard.rookAttacks(square, occupancy) & rooksAndQueens);
+	}
+	
+	/**
+	 * Returns a bitboard of the spaces attacked by the given piece in the
+	 * board's current configuration, including spaces occupied by pieces of
+	 * its own color. Pawns attack only their diagonals, and castling is
+	 * never an attack.
+	 * 
+	 * @param piece The piece to find attacks for. May not be null.
+	 * @return A bitboard of the spaces the piece attacks.
+	 */
+	public long findAttackedSpaces(Piece piece) {
+		return findAttackedSpaces(Bitboard.square(piece.getRow(), piece.getCol()), piece.getType(), piece.isWhite());
+	}
+	
+	/**
+	 * Helper method for findAttackedSpaces that returns the spaces attacked
+	 * by a piece of the given type and color on the given square.
+	 * 
+	 * @param square The square of the piece.
+	 * @param type The type of the piece.
+	 * @param isWhite A boolean indicating whether the piece is white.
+	 * @return A bitboard of the spaces the piece attacks.
+	 */
+	private long findAttackedSpaces(int square, Piece.PieceType type, boolean isWhite) {
+		long attacks = Bitboard.EMPTY;
+
+		switch (type) {
+			case PAWN:
+				attacks = Bitboard.pawnAttacks(square, isWhite);
+				break;
+			case KNIGHT:
+				attacks = Bitboard.KNIGHT_ATTACKS[square];
+				break;
+			case BISHOP:
+				attacks = Bitboard.bishopAttacks(square, getOccupancy());
+				break;
+			case ROOK:
+				attacks = Bitboard.rookAttacks(square, getOccupancy());
+				break;
+			case QUEEN:
+				attacks = Bitboard.queenAttacks(square, getOccupancy());
+				break;
+			case KING:
+				attacks = Bitboard.KING_ATTACKS[square];
+				break;
+		}
+
+		return attacks;
+	}
+	
+	/**
+	 * Returns a boolean indicating whether the specified color is in check in
+	 * the board's current configuration.
+	 * 
+	 * @param white A boolean indicating whether to check white or black.
+	 * @return True if the current position is check, false otherwise.
+	 */
+	public boolean isCheck(boolean isWhite) {
+		Piece king = isWhite ? whiteKing : blackKing;
+		return isSquareAttacked(Bitboard.square(king.getRow(), king.getCol()), !isWhite);
+	}
+	
+	/**
+	 * Returns a boolean indicating whether any piece of the given color
+	 * attacks the given square. Unlike findPiecesAttackingSpace, this looks
+	 * outward from the square with each piece's attack pattern and stops at
+	 * the first attacker found, without allocating.
+	 * 
+	 * @param square The square to check. 0 <= square < Bitboard.NUM_SPACES
+	 * @param byWhite A boolean indicating whether to look for white or black attackers.
+	 * @return True if the square is attacked by the given color.
+	 */
+	public boolean isSquareAttacked(int square, boolean byWhite) {
+		return isSquareAttacked(square, byWhite, getOccupancy());
+	}
+	
+	/**
+	 * Helper method for isSquareAttacked that checks for attackers as if the
+	 * occupied spaces were the given occupancy.
+	 * 
+	 * @param square The square to check. 0 <= square < Bitboard.NUM_SPACES
+	 * @param byWhite A boolean indicating whether to look for white or black attackers.
+	 * @param occupancy The occupied spaces that block sliding pieces.
+	 * @return True if the square is attacked by the given color.
+	 */
+	private boolean isSquareAttacked(int square, boolean byWhite, long occupancy) {
+		// check the cheap patterns first: a pawn of the attacking color
+		// stands where a pawn of the other color on the square would attack
+		if ((Bitboard.pawnAttacks(square, !byWhite) & getBitboard(Piece.PieceType.PAWN, byWhite)) != 0
+				|| (Bitboard.KNIGHT_ATTACKS[square] & getBitboard(Piece.PieceType.KNIGHT, byWhite)) != 0
+				|| (Bitboard.KING_ATTACKS[square] & getBitboard(Piece.PieceType.KING, byWhite)) != 0) {
+			return true;
+		}
+
+		// then look along the rays for sliders, skipping the lookups entirely
+		// when the attacker has no piece that moves along that kind of ray
+		long queens = getBitboard(Piece.PieceType.QUEEN, byWhite);
+		long rooksAndQueens = getBitboard(Piece.PieceType.ROOK, byWhite) | queens;
+		if (rooksAndQueens != 0 && (Bitboard.rookAttacks(square, occupancy) & rooksAndQueens) != 0) {
+			return true;
+		}
+		long bishopsAndQueens = getBitboard(Piece.PieceType.BISHOP, byWhite) | queens;
+		return bishopsAndQueens != 0 && (Bitboard.bishopAttacks(square, occupancy) & bishopsAndQueens) != 0;
+	}
+	
+	/**
+	 * Returns an ArrayList of pieces of the opposite color to the given one
+	 * that can attack the given space on the board. Only direct attacks
+	 * count; a slider behind another attacker is not included (see
+	 * staticExchangeEvaluation() for exchanges).
+	 * 
+	 * @param spaceToCheck The space to find attackers for. May not be null.
+	 * @param isWhite A boolean indicating whether the space is being defended
+	 *            by white, so that black attackers are returned, or by black.
+	 * @return An ArrayList of pieces attacking the given space, sorted by increasing
+	 *         order of value.
+	 */
+	public ArrayList<Piece> findPiecesAttackingSpace(Space spaceToCheck, boolean isWhite) {
+		if (spaceToCheck == null) {
+			throw new IllegalArgumentException("The space to check may not be null.");
+		}
+
+		return findPiecesAttackingSpaces(new Space[] {spaceToCheck}, isWhite);
+	}
+	
+	/**
+	 * Returns an ArrayList of pieces of the opposite color to the given one
+	 * that can attack any of the given spaces on the board.
+	 * 
+	 * @param spacesToCheck The spaces to find attackers for. May not be null.
+	 * @param isWhite A boolean indicating whether the spaces are being
+	 *            defended by white, so that black attackers are returned, or
+	 *            by black.
+	 * @return An ArrayList of pieces attacking the given spaces, sorted by increasing
+	 *         order of value.
+	 */
+	public ArrayList<Piece> findPiecesAttackingSpaces(Space[] spacesToCheck, boolean isWhite) {
+		if (spacesToCheck == null) {
+			throw new IllegalArgumentException("The spaces to check must not be null.");
+		}
+		
+		long targets = Bitboard.EMPTY;
+		for (Space spaceToCheck : spacesToCheck) {
+			targets |= Bitboard.bit(Bitboard.square(spaceToCheck.getRow(), spaceToCheck.getCol()));
+		}
+		
+		// Check the opposing team to see if any pieces attack one of the spaces.
+		// You cannot capture with castling, so castling moves are not attacks.
+		ArrayList<Piece> piecesAttacking = new ArrayList<Piece>();
+		ArrayList<Piece> opposingTeam = isWhite ? blackPieces : whitePieces;
+		for (Piece piece : opposingTeam) {
+			if ((findAttackedSpaces(piece) & targets) != 0) {
+				piecesAttacking.add(piece);
+			}
+		}
+		
+		Collections.sort(piecesAttacking);
+		return piecesAttacking;
+	}
+	
+	/**
+	 * Returns an ArrayList of pieces attacking the specified piece in the board's
+	 * current configuration.
+	 * 
+	 * @param piece The piece to check for attackers. May not be null.
+	 * @return An ArrayList of pieces attacking the specified piece.
+	 */
+	public ArrayList<Piece> findPiecesAttackingPiece(Piece piece) {
+		if (piece == null) {
+			throw new IllegalArgumentException("The piece to check for attackers may not be null.");
+		}
+
+		Space currentSpace = spaces[piece.getRow()][piece.getCol()];
+		return findPiecesAttackingSpace(currentSpace, piece.isWhite());
+	}
+
+	/**
+	 * Update the Board to make the specified Move. A pawn is promoted to the
+	 * Move's promotion type (see Move.withPromotion). The move can be taken
+	 * back with undoMove().<br>
+	 * pre: move != null
+	 * 
+	 * @param move
+	 *            The Move to make. May not be null.
+	 */
+	public void makeOfficialMove(Move move) {
+		// check precondition
+		if (move == null)
+			throw new IllegalArgumentException("The Move to make may not be null.");
+
+		makeMove(move.getPackedMove());
+	}
+
+	/**
+	 * Update the Board to make the specified Move while searching. This is
+	 * the same as makeOfficialMove(), since the board no longer tracks which
+	 * pieces moved last turn. A pawn reaching the last row is promoted to a
+	 * queen unless the Move says otherwise. <br>
+	 * pre: move != null
+	 * 
+	 * @param move
+	 *            The Move to make. May not be null.
+	 */
+	public void makeTestMove(Move move) {
+
+		// check precondition
+		if (move == null)
+			throw new IllegalArgumentException("The Move to make may not be null.");
+
+		makeMove(move.getPackedMove());
+	}
+
+	/**
+	 * Update the Board to make the specified packed move, such as one written
+	 * by generateLegalMoves. The move must be undone with undoMove(int) in
+	 * the reverse order that moves were made. <br>
+	 * pre: move is a legal move in the board's current configuration
+	 * 
+	 * @param move
+	 *            The packed move to make.
+	 */
+	public void makeMove(int move) {
+		// get the necessary info
+		int from = PackedMove.getFrom(move);
+		int to = PackedMove.getTo(move);
+		Space source = spaces[Bitboard.row(from)][Bitboard.col(from)];
+		Space dest = spaces[Bitboard.row(to)][Bitboard.col(to)];
+		Piece movedPiece = source.getPiece();
+		Piece capturedPiece = null;
+		if (PackedMove.isEnPassant(move))
+			capturedPiece = spaces[Bitboard.row(from)][Bitboard.col(to)].getPiece();
+		else if (PackedMove.isCapture(move))
+			capturedPiece = dest.getPiece();
+
+		// remember what the move changes so that it can be undone
+		if (undoSize == undoStack.length) {
+			growUndoStack();
+		}
+		UndoRecord record = undoStack[undoSize++];
+		record.capturedPiece = capturedPiece;
+		record.castlingRights = castlingRights;
+		record.enPassantSquare = enPassantSquare;
+		record.halfmoveClock = halfmoveClock;
+		record.hash = hash;
+
+		// the halfmove clock starts over after a capture or pawn move
+		if (capturedPiece != null || movedPiece.getType() == Piece.PieceType.PAWN)
+			halfmoveClock = 0;
+		else
+			halfmoveClock++;
+		if (!whiteToMove)
+			fullmoveNumber++;
+
+		// change the source's piece to null
+		source.setPiece(null);
+
+		// check if this is a castle, call helper method if so
+		if (PackedMove.isCastle(move))
+			castle(source, dest);
+
+		// actually make the move
+		makeMove(movedPiece, capturedPiece, dest);
+
+		if (PackedMove.isPromotion(move)) {
+			removeFromBitboards(movedPiece, dest.getRow(), dest.getCol());
+			movedPiece.promote(PackedMove.getPromotion(move));
+			movedPiece.setPromoted(true);
+			placeOnBitboards(movedPiece, dest.getRow(), dest.getCol());
+		}
+
+		// a move from or to a king or rook square loses those castling rights
+		int newCastlingRights = castlingRights & CASTLING_RIGHTS_MASKS[from] & CASTLING_RIGHTS_MASKS[to];
+		int newEnPassantSquare = PackedMove.getFlag(move) == PackedMove.DOUBLE_PAWN_PUSH ? (from + to) / 2 : NO_SQUARE;
+		setPositionState(!whiteToMove, newCastlingRights, newEnPassantSquare);
+	}
+	
+	/**
+	 * Helper method for makeMove() that doubles the size of the undo stack.
+	 */
+	private void growUndoStack() {
+		int oldLength = undoStack.length;
+		undoStack = Arrays.copyOf(undoStack, oldLength * 2);
+		for (int i = oldLength; i < undoStack.length; i++) {
+			undoStack[i] = new UndoRecord();
+		}
+	}
+	
+	/**
+	 * Helper method that forgets every move that has been made, so that the
+	 * current position can no longer be undone, along with any positions
+	 * carried over from a copy.
+	 */
+	private void clearUndoStack() {
+		for (int i = 0; i < undoSize; i++) {
+			undoStack[i].clear();
+		}
+		undoSize = 0;
+		priorSize = 0;
+	}
+	
+	/**
+	 * Helper method for makeMove() that sets the side to move,
+	 * castling rights and en passant square, updating the hash to match.
+	 * 
+	 * @param newWhiteToMove A boolean indicating whether white is to move.
+	 * @param newCastlingRights The castling rights, a combination of the CASTLE_ flags.
+	 * @param newEnPassantSquare The en passant square, or NO_SQUARE.
+	 */
+	private void setPositionState(boolean newWhiteToMove, int newCastlingRights, int newEnPassantSquare) {
+		if (newWhiteToMove != whiteToMove) {
+			hash ^= Zobrist.blackToMoveKey();
+			whiteToMove = newWhiteToMove;
+		}
+		hash ^= Zobrist.castlingKey(castlingRights) ^ Zobrist.castlingKey(newCastlingRights);
+		castlingRights = newCastlingRights;
+		if (enPassantSquare != NO_SQUARE) {
+			hash ^= Zobrist.enPassantKey(Bitboard.col(enPassantSquare));
+		}
+		if (newEnPassantSquare != NO_SQUARE) {
+			hash ^= Zobrist.enPassantKey(Bitboard.col(newEnPassantSquare));
+		}
+		enPassantSquare = newEnPassantSquare;
+	}
+
+	/**
+	 * Helper method for makeMove() that actually moves the Piece to the correct
+	 * destination and captures the Piece if one exists.<br>
+	 * pre: movedPiece != null, dest != null
+	 * 
+	 * @param movedPiece
+	 *            The Piece that is being moved. May not be null.
+	 * @param capturedPiece
+	 *            The Piece that is being captured. May be null.
+	 * @param dest
+	 *            The Space to move movedPiece to. May not be null.
+	 */
+	private void makeMove(Piece movedPiece, Piece capturedPiece, Space dest) {
+
+		// check preconditions
+		if (movedPiece == null || dest == null)
+			throw new IllegalArgumentException("movedPiece and dest may not be null.");
+
+		// capture a Piece if one exists to be captured
+		if (capturedPiece != null) {
+			capturedPiece.setCaptured(true);
+			removeFromPieceList(capturedPiece);
+			spaces[capturedPiece.getRow()][capturedPiece.getCol()].setPiece(null);
+			removeFromBitboards(capturedPiece, capturedPiece.getRow(), capturedPiece.getCol());
+		}
+
+		removeFromBitboards(movedPiece, movedPiece.getRow(), movedPiece.getCol());
+		placeOnBitboards(movedPiece, dest.getRow(), dest.getCol());
+		movedPiece.setRow(dest.getRow());
+		movedPiece.setCol(dest.getCol());
+		//System.out.println("Moved piece: " + movedPiece);
+
+		dest.setPiece(movedPiece);
+		//System.out.println("New space: " + dest);
+	}
+
+	/**
+	 * Helper method for makeMove() that places the rook in the right spot when
+	 * castling. <br>
+	 * pre: source != null, dest != null <br>
+	 * post: the rook involved in the castle is moved to the correct Space.
+	 * 
+	 * @param source
+	 *            The Space that the king is moving from. May not be null.
+	 * @param dest
+	 *            The Space that the king is moving to. May not be null.
+	 */
+	private void castle(Space source, Space dest) {
+		
+		//System.out.println("CASTLE");
+
+		// check preconditions
+		if (source == null || dest == null)
+			throw new IllegalArgumentException("Source and dest may not be null.");
+
+		// first get the correct rook
+		Space rookSpace;
+		int changeFromDest;
+		if (source.getCol() > dest.getCol()) {
+			rookSpace = spaces[source.getRow()][Board.MIN_COL];
+			changeFromDest = 1;
+		} else {
+			rookSpace = spaces[source.getRow()][Board.MAX_COL];
+			changeFromDest = -1;
+		}
+
+		Piece rookToMove = rookSpace.getPiece();
+		rookSpace.setPiece(null);
+		// board_.setSpace(rookSpace.getRow(), rookSpace.getCol(),
+		// rookSpace);
+
+		// move the rook
+		removeFromBitboards(rookToMove, rookSpace.getRow(), rookSpace.getCol());
+		placeOnBitboards(rookToMove, dest.getRow(), dest.getCol() + changeFromDest);
+		rookToMove.setCol(dest.getCol() + changeFromDest);
+		Space newRookSpace = spaces[dest.getRow()][dest.getCol() + changeFromDest];
+		newRookSpace.setPiece(rookToMove);
+	}
+
+	/**
+	 * Helper method for makeMove() that removes a captured Piece from its
+	 * list of active pieces by moving the last Piece in the list into its
+	 * place. <br>
+	 * pre: piece is in its color's list
+	 * 
+	 * @param piece The captured Piece. May not be null.
+	 */
+	private void removeFromPieceList(Piece piece) {
+		ArrayList<Piece> pieces = piece.isWhite() ? whitePieces : blackPieces;
+		int index = piece.getListIndex();
+		Piece last = pieces.remove(pieces.size() - 1);
+		if (last != piece) {
+			pieces.set(index, last);
+			last.setListIndex(index);
+		}
+	}
+	
+	/**
+	 * Helper method for undoMove() that puts a Piece back in its list of
+	 * active pieces at the index it was removed from, moving the Piece that
+	 * took its place back to the end. Because moves are undone in reverse
+	 * order, this leaves the list exactly as it was before the capture. <br>
+	 * pre: piece was the last Piece removed with removeFromPieceList()
+	 * 
+	 * @param piece The Piece to restore. May not be null.
+	 */
+	private void restoreToPieceList(Piece piece) {
+		ArrayList<Piece> pieces = piece.isWhite() ? whitePieces : blackPieces;
+		int index = piece.getListIndex();
+		if (index == pieces.size()) {
+			pieces.add(piece);
+		} else {
+			Piece moved = pieces.get(index);
+			moved.setListIndex(pieces.size());
+			pieces.add(moved);
+			pieces.set(index, piece);
+		}
+	}
+
+	/**
+	 * Update the Board to undo the specified Move. <br>
+	 * pre: move != null, move was the last move made
+	 * 
+	 * @param move
+	 *            The Move to undo. May not be null.
+	 */
+	public void undoMove(Move move) {
+		// check precondition
+		if (move == null)
+			throw new IllegalArgumentException("The move may not be null.");
+
+		undoMove(move.getPackedMove());
+	}
+
+	/**
+	 * Update the Board to undo the specified packed move. <br>
+	 * pre: move was the last move made with makeMove(int)
+	 * 
+	 * @param move
+	 *            The packed move to undo.
+	 */
+	public void undoMove(int move) {
+		// get the necessary info
+		int from = PackedMove.getFrom(move);
+		int to = PackedMove.getTo(move);
+		Space source = spaces[Bitboard.row(from)][Bitboard.col(from)];
+		Space dest = spaces[Bitboard.row(to)][Bitboard.col(to)];
+		Piece movedPiece = dest.getPiece();
+		UndoRecord record = undoStack[--undoSize];
+		Piece capturedPiece = record.capturedPiece;
+		record.clear();
+
+		if (PackedMove.isPromotion(move)) {
+			removeFromBitboards(movedPiece, dest.getRow(), dest.getCol());
+			movedPiece.demote();
+			placeOnBitboards(movedPiece, dest.getRow(), dest.getCol());
+		}
+
+		// move the piece back before restoring the captured
+		// piece, which may be standing on the same space
+		dest.setPiece(null);
+		removeFromBitboards(movedPiece, dest.getRow(), dest.getCol());
+		placeOnBitboards(movedPiece, source.getRow(), source.getCol());
+		movedPiece.setRow(source.getRow());
+		movedPiece.setCol(source.getCol());
+		source.setPiece(movedPiece);
+
+		// check if this is a castle, call helper method if so
+		if (PackedMove.isCastle(move))
+			uncastle(source, dest);
+
+		// restore a Piece if one was captured
+		else if (capturedPiece != null) {
+			capturedPiece.setCaptured(false);
+			restoreToPieceList(capturedPiece);
+			spaces[capturedPiece.getRow()][capturedPiece.getCol()].setPiece(capturedPiece);
+			placeOnBitboards(capturedPiece, capturedPiece.getRow(), capturedPiece.getCol());
+		}
+
+		// restore the rest of the position from the record. The hash is
+		// set last, since moving the pieces back changed it.
+		whiteToMove = !whiteToMove;
+		if (!whiteToMove)
+			fullmoveNumber--;
+		castlingRights = record.castlingRights;
+		enPassantSquare = record.enPassantSquare;
+		halfmoveClock = record.halfmoveClock;
+		hash = record.hash;
+	}
+	
+	/**
+	 * Helper method for undoMove() that places the rook in the right spot when
+	 * undoing a castle. <br>
+	 * pre: source != null, dest != null <br>
+	 * post: the rook involved in the castle is moved to the correct Space.
+	 * 
+	 * @param source
+	 *            The Space that the king moved from. May not be null.
+	 * @param dest
+	 *            The Space that the king moved to. May not be null.
+	 */
+	private void uncastle(Space source, Space dest) {
+		
+		// System.out.println("UNCASTLE");
+
+		// check preconditions
+		if (source == null || dest == null)
+			throw new IllegalArgumentException("Source and dest may not be null.");
+
+		// first get the correct rook
+		Space originalRookSpace;
+		int changeFromDest;
+		if (source.getCol() > dest.getCol()) {
+			originalRookSpace = spaces[source.getRow()][Board.MIN_COL];
+			changeFromDest = 1;
+		} else {
+			originalRookSpace = spaces[source.getRow()][Board.MAX_COL];
+			changeFromDest = -1;
+		}
+		
+		// reset the Space objects
+		Space newRookSpace = spaces[dest.getRow()][dest.getCol() + changeFromDest];
+		Piece rookToMove = newRookSpace.getPiece();
+		originalRookSpace.setPiece(rookToMove);
+		newRookSpace.setPiece(null);
+
+		// undo the rook move 
+		removeFromBitboards(rookToMove, newRookSpace.getRow(), newRookSpace.getCol());
+		placeOnBitboards(rookToMove, originalRookSpace.getRow(), originalRookSpace.getCol());
+		rookToMove.setCol(originalRookSpace.getCol());
+	}
+	
+	/**
+	 * Return the list of black Pieces that have not been captured. The list
+	 * is updated as moves are made and undone, and its order may change when
+	 * a piece is captured. <br>
+	 * pre: none
+	 * 
+	 * @return The list of active black Pieces.
+	 */
+	public ArrayList<Piece> getBlackPieces() {
+		return blackPieces;
+	}
+
+	/**
+	 * Return the list of white Pieces that have not been captured. The list
+	 * is updated as moves are made and undone, and its order may change when
+	 * a piece is captured. <br>
+	 * pre: none
+	 * 
+	 * @return The list of active white Pieces.
+	 */
+	public ArrayList<Piece> getWhitePieces() {
+		return whitePieces;
+	}
+	
+	/**
+	 * Returns the pieces of the given color captured by the moves made on
+	 * this Board, in the order they were captured. Only moves that can still
+	 * be undone count, so a position loaded with setFen() or copyFrom() starts
+	 * with no captured pieces. <br>
+	 * pre: none
+	 * 
+	 * @param isWhite A boolean indicating whether to return the captured
+	 *            white or black pieces.
+	 * @return A new list of the captured pieces.
+	 */
+	public ArrayList<Piece> getCapturedPieces(boolean isWhite) {
+		ArrayList<Piece> capturedPieces = new ArrayList<Piece>();
+		for (int i = 0; i < undoSize; i++) {
+			Piece piece = undoStack[i].capturedPiece;
+			if (piece != null && piece.isWhite() == isWhite) {
+				capturedPieces.add(piece);
+			}
+		}
+		return capturedPieces;
+	}
+	
+	/**
+	 * Returns the number of active pieces of the given type and color.
+	 * 
+	 * @param type The type of piece. May not be null.
+	 * @param isWhite A boolean indicating whether to count white or black pieces.
+	 * @return The number of those pieces on the board.
+	 */
+	public int getPieceCount(Piece.PieceType type, boolean isWhite) {
+		return Long.bitCount(pieceBitboards[Piece.index(type, isWhite)]);
+	}
+	
+	/**
+	 * Returns the total value of the active pieces of the given color, kings
+	 * included (see Piece.PieceType.getValue()).
+	 * 
+	 * @param isWhite A boolean indicating whether to total white or black's pieces.
+	 * @return The material of that color in pawns.
+	 */
+	public int getMaterial(boolean isWhite) {
+		return isWhite ? whiteMaterial : blackMaterial;
+	}
+	
+	/**
+	 * Returns the sum of the middlegame piece-square scores of the pieces on
+	 * the board, from white's point of view (see Evaluator).
+	 * 
+	 * @return The middlegame score in centipawns.
+	 */
+	public int getMiddlegameScore() {
+		return middlegameScore;
+	}
+	
+	/**
+	 * Returns the sum of the endgame piece-square scores of the pieces on the
+	 * board, from white's point of view (see Evaluator).
+	 * 
+	 * @return The endgame score in centipawns.
+	 */
+	public int getEndgameScore() {
+		return endgameScore;
+	}
+	
+	/**
+	 * Returns the game phase: the phase weights of the pieces on the board
+	 * added together, from Evaluator.MAX_PHASE at the start of the game down
+	 * to 0 with only kings and pawns left.
+	 * 
+	 * @return The game phase.
+	 */
+	public int getGamePhase() {
+		return gamePhase;
+	}
+
+	/**
+	 * Returns this Board's black king.<br>
+	 * pre: none
+	 * 
+	 * @return The Board's black king
+	 */
+	public Piece getBlackKing() {
+		return blackKing;
+	}
+
+	/**
+	 * Returns this Board's white king.<br>
+	 * pre: none
+	 * 
+	 * @return The Board's white king
+	 */
+	public Piece getWhiteKing() {
+		return whiteKing;
+	}
+}
\ No newline at end of file
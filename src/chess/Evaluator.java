@@ -0,0 +1,585 @@
+package chess;
+
+/**
+ * Scores positions for the search. The score is made of a middlegame and an
+ * endgame score, blended by the game phase: how much material other than
+ * pawns is left on the board. Each is the sum over the pieces of a value for
+ * the piece's type on its square, from piece-square tables that combine the
+ * piece's material value with how well placed it is. Board keeps both sums
+ * and the phase up to date as pieces are placed and removed (see
+ * Board.getMiddlegameScore()), so evaluating a position only blends them.
+ * <br>
+ * The tables are those of the PeSTO evaluation, tuned on real games. They
+ * are written from white's point of view with rank 8 first, the same order
+ * as the squares (see Bitboard); black's values are mirrored vertically and
+ * negated. Scores are in centipawns.
+ * <br>
+ * On top of the tables, pawns are scored for the structure they form:
+ * passed pawns gain more the further they have advanced, and doubled,
+ * isolated and backward pawns lose. The structure only changes when pawns
+ * move or are captured, so its scores are cached by the pawns' own hash
+ * (see PawnHashTable) and computed once for each pawn structure met.
+ * <br>
+ * Finally, the spaces each side attacks are found once per position, as
+ * attack maps: the spaces attacked by each piece type, by any piece and by
+ * at least two pieces. Each side then scores for the mobility of its
+ * pieces, its pressure on the spaces around the enemy king, forks by its
+ * pawns and minor pieces, enemy pieces attacked by cheaper pieces and enemy
+ * pieces it attacks that are not defended.
+ * <br>
+ * An Evaluator is not thread safe. Each searching thread needs its own.
+ */
+public class Evaluator {
+
+	// class constants
+	// the phase with all pieces on the board; promotions can take the
+	// phase above it, in which case the position counts as a middlegame
+	public static final int MAX_PHASE = 24;
+
+	// indexed by Piece.PieceType.ordinal()
+	private static final int[] MIDDLEGAME_VALUES = { 82, 337, 365, 477, 1025, 0 };
+	private static final int[] ENDGAME_VALUES = { 94, 281, 297, 512, 936, 0 };
+	private static final int[] PHASE_WEIGHTS = { 0, 1, 1, 2, 4, 0 };
+
+	// indexed by the rank of a passed pawn counted from its own side, from
+	// 0 to 7, so that 1 is its starting rank
+	private static final int[] PASSED_PAWN_MIDDLEGAME = { 0, 5, 10, 15, 25, 40, 65, 0 };
+	private static final int[] PASSED_PAWN_ENDGAME = { 0, 10, 15, 25, 45, 75, 120, 0 };
+	private static final int DOUBLED_PAWN_MIDDLEGAME = -10;
+	private static final int DOUBLED_PAWN_ENDGAME = -25;
+	private static final int ISOLATED_PAWN_MIDDLEGAME = -8;
+	private static final int ISOLATED_PAWN_ENDGAME = -12;
+	private static final int BACKWARD_PAWN_MIDDLEGAME = -8;
+	private static final int BACKWARD_PAWN_ENDGAME = -10;
+
+	// indexed by Piece.PieceType.ordinal(). Mobility is the number of spaces
+	// a piece attacks that are neither its own side's nor attacked by enemy
+	// pawns, and scores relative to a typical mobility, so that it does not
+	// add to the value of the piece.
+	private static final int[] MOBILITY_MIDDLEGAME = { 0, 4, 5, 3, 1, 0 };
+	private static final int[] MOBILITY_ENDGAME = { 0, 4, 5, 4, 2, 0 };
+	private static final int[] TYPICAL_MOBILITY = { 0, 4, 6, 7, 13, 0 };
+	// how much each attack on a space around the king counts for
+	private static final int[] KING_ATTACK_WEIGHTS = { 0, 2, 2, 3, 5, 0 };
+
+	// The king danger grows with the square of the weighted attacks on the
+	// spaces around the king, once at least two pieces attack them. It only
+	// counts in the middlegame.
+	private static final int KING_ATTACKERS_FOR_DANGER = 2;
+	private static final int KING_DANGER_DIVISOR = 4;
+	private static final int MAX_KING_DANGER = 500;
+	private static final int THREAT_BY_PAWN_MIDDLEGAME = 60;
+	private static final int THREAT_BY_PAWN_ENDGAME = 45;
+	private static final int THREAT_BY_MINOR_MIDDLEGAME = 35;
+	private static final int THREAT_BY_MINOR_ENDGAME = 30;
+	private static final int THREAT_BY_ROOK_MIDDLEGAME = 35;
+	private static final int THREAT_BY_ROOK_ENDGAME = 30;
+	private static final int HANGING_MIDDLEGAME = 25;
+	private static final int HANGING_ENDGAME = 35;
+	private static final int FORK_MIDDLEGAME = 30;
+	private static final int FORK_ENDGAME = 25;
+
+	// the piece types whose attacks are found one piece at a time
+	private static final Piece.PieceType[] PIECE_TYPES = new Piece.PieceType[] {
+			Piece.PieceType.KNIGHT, Piece.PieceType.BISHOP, Piece.PieceType.ROOK,
+			Piece.PieceType.QUEEN, Piece.PieceType.KING };
+
+	private static final int WHITE = 0;
+	private static final int BLACK = 1;
+	private static final int NUM_FILES = Board.MAX_COL + 1;
+
+	private static final int[][] MIDDLEGAME_TABLES = {
+		{ // pawn
+			  0,   0,   0,   0,   0,   0,   0,   0,
+			 98, 134,  61,  95,  68, 126,  34, -11,
+			 -6,   7,  26,  31,  65,  56,  25, -20,
+			-14,  13,   6,  21,  23,  12,  17, -23,
+			-27,  -2,  -5,  12,  17,   6,  10, -25,
+			-26,  -4,  -4, -10,   3,   3,  33, -12,
+			-35,  -1, -20, -23, -15,  24,  38, -22,
+			  0,   0,   0,   0,   0,   0,   0,   0 },
+		{ // knight
+			-167, -89, -34, -49,  61, -97, -15, -107,
+			 -73, -41,  72,  36,  23,  62,   7,  -17,
+			 -47,  60,  37,  65,  84, 129,  73,   44,
+			  -9,  17,  19,  53,  37,  69,  18,   22,
+			 -13,   4,  16,  13,  28,  19,  21,   -8,
+			 -23,  -9,  12,  10,  19,  17,  25,  -16,
+			 -29, -53, -12,  -3,  -1,  18, -14,  -19,
+			-105, -21, -58, -33, -17, -28, -19,  -23 },
+		{ // bishop
+			-29,   4, -82, -37, -25, -42,   7,  -8,
+			-26,  16, -18, -13,  30,  59,  18, -47,
+			-16,  37,  43,  40,  35,  50,  37,  -2,
+			 -4,   5,  19,  50,  37,  37,   7,  -2,
+			 -6,  13,  13,  26,  34,  12,  10,   4,
+			  0,  15,  15,  15,  14,  27,  18,  10,
+			  4,  15,  16,   0,   7,  21,  33,   1,
+			-33,  -3, -14, -21, -13, -12, -39, -21 },
+		{ // rook
+			 32,  42,  32,  51,  63,   9,  31,  43,
+			 27,  32,  58,  62,  80,  67,  26,  44,
+			 -5,  19,  26,  36,  17,  45,  61,  16,
+			-24, -11,   7,  26,  24,  35,  -8, -20,
+			-36, -26, -12,  -1,   9,  -7,   6, -23,
+			-45, -25, -16, -17,   3,   0,  -5, -33,
+			-44, -16, -20,  -9,  -1,  11,  -6, -71,
+			-19, -13,   1,  17,  16,   7, -37, -26 },
+		{ // queen
+			-28,   0,  29,  12,  59,  44,  43,  45,
+			-24, -39,  -5,   1, -16,  57,  28,  54,
+			-13, -17,   7,   8,  29,  56,  47,  57,
+			-27, -27, -16, -16,  -1,  17,  -2,   1,
+			 -9, -26,  -9, -10,  -2,  -4,   3,  -3,
+			-14,   2, -11,  -2,  -5,   2,  14,   5,
+			-35,  -8,  11,   2,   8,  15,  -3,   1,
+			 -1, -18,  -9,  10, -15, -25, -31, -50 },
+		{ // king
+			-65,  23,  16, -15, -56, -34,   2,  13,
+			 29,  -1, -20,  -7,  -8,  -4, -38, -29,
+			 -9,  24,   2, -16, -20,   6,  22, -22,
+			-17, -20, -12, -27, -30, -25, -14, -36,
+			-49,  -1, -27, -39, -46, -44, -33, -51,
+			-14, -14, -22, -46, -44, -30, -15, -27,
+			  1,   7,  -8, -64, -43, -16,   9,   8,
+			-15,  36,  12, -54,   8, -28,  24,  14 } };
+
+	private static final int[][] ENDGAME_TABLES = {
+		{ // pawn
+			  0,   0,   0,   0,   0,   0,   0,   0,
+			178, 173, 158, 134, 147, 132, 165, 187,
+			 94, 100,  85,  67,  56,  53,  82,  84,
+			 32,  24,  13,   5,  -2,   4,  17,  17,
+			 13,   9,  -3,  -7,  -7,  -8,   3,  -1,
+			  4,   7,  -6,   1,   0,  -5,  -1,  -8,
+			 13,   8,   8,  10,  13,   0,   2,  -7,
+			  0,   0,   0,   0,   0,   0,   0,   0 },
+		{ // knight
+			-58, -38, -13, -28, -31, -27, -63, -99,
+			-25,  -8, -25,  -2,  -9, -25, -24, -52,
+			-24, -20,  10,   9,  -1,  -9, -19, -41,
+			-17,   3,  22,  22,  22,  11,   8, -18,
+			-18,  -6,  16,  25,  16,  17,   4, -18,
+			-23,  -3,  -1,  15,  10,  -3, -20, -22,
+			-42, -20, -10,  -5,  -2, -20, -23, -44,
+			-29, -51, -23, -15, -22, -18, -50, -64 },
+		{ // bishop
+			-14, -21, -11,  -8,  -7,  -9, -17, -24,
+			 -8,  -4,   7, -12,  -3, -13,  -4, -14,
+			  2,  -8,   0,  -1,  -2,   6,   0,   4,
+			 -3,   9,  12,   9,  14,  10,   3,   2,
+			 -6,   3,  13,  19,   7,  10,  -3,  -9,
+			-12,  -3,   8,  10,  13,   3,  -7, -15,
+			-14, -18,  -7,  -1,   4,  -9, -15, -27,
+			-23,  -9, -23,  -5,  -9, -16,  -5, -17 },
+		{ // rook
+			 13,  10,  18,  15,  12,  12,   8,   5,
+			 11,  13,  13,  11,  -3,   3,   8,   3,
+			  7,   7,   7,   5,   4,  -3,  -5,  -3,
+			  4,   3,  13,   1,   2,   1,  -1,   2,
+			  3,   5,   8,   4,  -5,  -6,  -8, -11,
+			 -4,   0,  -5,  -1,  -7, -12,  -8, -16,
+			 -6,  -6,   0,   2,  -9,  -9, -11,  -3,
+			 -9,   2,   3,  -1,  -5, -13,   4, -20 },
+		{ // queen
+			 -9,  22,  22,  27,  27,  19,  10,  20,
+			-17,  20,  32,  41,  58,  25,  30,   0,
+			-20,   6,   9,  49,  47,  35,  19,   9,
+			  3,  22,  24,  45,  57,  40,  57,  36,
+			-18,  28,  19,  47,  31,  34,  39,  23,
+			-16, -27,  15,   6,   9,  17,  10,   5,
+			-22, -23, -30, -16, -16, -23, -36, -32,
+			-33, -28, -22, -43,  -5, -32, -20, -41 },
+		{ // king
+			-74, -35, -18, -18, -11,  15,   4, -17,
+			-12,  17,  14,  17,  17,  38,  23,  11,
+			 10,  17,  23,  15,  20,  45,  44,  13,
+			 -8,  22,  24,  27,  26,  33,  26,   3,
+			-18,  -4,  21,  24,  27,  23,   9, -11,
+			-19,  -3,  11,  21,  23,  16,   7,  -9,
+			-27, -11,   4,  13,  14,   4,  -5, -17,
+			-53, -34, -21, -11, -28, -14, -24, -43 } };
+
+	// the scores of each piece index on each square, for white
+	private static final int[][] MIDDLEGAME_SCORES = createScores(MIDDLEGAME_VALUES, MIDDLEGAME_TABLES);
+	private static final int[][] ENDGAME_SCORES = createScores(ENDGAME_VALUES, ENDGAME_TABLES);
+
+	// the spaces on the files next to each file
+	private static final long[] ADJACENT_FILES = new long[NUM_FILES];
+	// For a pawn of each color (WHITE or BLACK) on each square: the spaces
+	// ahead of it on its file, the spaces ahead of it on its file and the
+	// files next to it, and the spaces on the files next to it that are
+	// level with or behind it.
+	private static final long[][] FRONT_SPANS = new long[2][Bitboard.NUM_SPACES];
+	private static final long[][] PASSED_PAWN_MASKS = new long[2][Bitboard.NUM_SPACES];
+	private static final long[][] SUPPORT_MASKS = new long[2][Bitboard.NUM_SPACES];
+
+	static {
+		for (int square = 0; square < Bitboard.NUM_SPACES; square++) {
+			int row = Bitboard.row(square);
+			int col = Bitboard.col(square);
+			for (int r = 0; r <= Board.MAX_ROW; r++) {
+				for (int c = Math.max(0, col - 1); c <= Math.min(Board.MAX_COL, col + 1); c++) {
+					long bit = Bitboard.bit(Bitboard.square(r, c));
+					if (c != col) {
+						ADJACENT_FILES[col] |= bit;
+					}
+					// white pawns move towards row 0
+					if (r < row) {
+						PASSED_PAWN_MASKS[WHITE][square] |= bit;
+					} else if (r > row) {
+						PASSED_PAWN_MASKS[BLACK][square] |= bit;
+					}
+					if (c == col) {
+						continue;
+					}
+					if (r >= row) {
+						SUPPORT_MASKS[WHITE][square] |= bit;
+					}
+					if (r <= row) {
+						SUPPORT_MASKS[BLACK][square] |= bit;
+					}
+				}
+			}
+			FRONT_SPANS[WHITE][square] = PASSED_PAWN_MASKS[WHITE][square] & ~ADJACENT_FILES[col];
+			FRONT_SPANS[BLACK][square] = PASSED_PAWN_MASKS[BLACK][square] & ~ADJACENT_FILES[col];
+		}
+	}
+
+	// instance variables
+	private final PawnHashTable pawnTable;
+	// the pawn structure scores computed by scorePawns()
+	private int pawnMiddlegameScore;
+	private int pawnEndgameScore;
+
+	// The attack maps of the position being evaluated, for each color
+	// (WHITE or BLACK): the spaces attacked by each piece type, by any
+	// piece and by at least two pieces.
+	private final long[][] attacksByType;
+	private final long[] attacks;
+	private final long[] doubleAttacks;
+	// the scores of each color's attacks, for white and black
+	private final int[] attackMiddlegameScores;
+	private final int[] attackEndgameScores;
+
+	/**
+	 * Creates an Evaluator with an empty pawn hash table.
+	 */
+	public Evaluator() {
+		pawnTable = new PawnHashTable(PawnHashTable.DEFAULT_ENTRIES);
+		attacksByType = new long[2][Piece.PieceType.values().length];
+		attacks = new long[2];
+		doubleAttacks = new long[2];
+		attackMiddlegameScores = new int[2];
+		attackEndgameScores = new int[2];
+	}
+
+	/**
+	 * Helper method that combines the material values and piece-square
+	 * tables into a score for each piece index and square, positive for
+	 * white's pieces and negative for black's.
+	 *
+	 * @param values The material value of each piece type.
+	 * @param tables The piece-square table of each piece type, for white.
+	 * @return The scores, indexed by piece index and square.
+	 */
+	private static int[][] createScores(int[] values, int[][] tables) {
+		int[][] scores = new int[Piece.NUM_INDICES][Bitboard.NUM_SPACES];
+		for (Piece.PieceType type : Piece.PieceType.values()) {
+			int[] white = scores[Piece.index(type, true)];
+			int[] black = scores[Piece.index(type, false)];
+			for (int square = 0; square < Bitboard.NUM_SPACES; square++) {
+				int score = values[type.ordinal()] + tables[type.ordinal()][square];
+				white[square] = score;
+				black[Bitboard.square(Board.MAX_ROW - Bitboard.row(square), Bitboard.col(square))] = -score;
+			}
+		}
+		return scores;
+	}
+
+	/**
+	 * Returns what a piece on a square adds to the middlegame score of a
+	 * position, from white's point of view.
+	 *
+	 * @param index The index of the piece. 0 <= index < Piece.NUM_INDICES
+	 * @param square The square of the piece. 0 <= square < Bitboard.NUM_SPACES
+	 * @return The middlegame score of the piece in centipawns.
+	 */
+	static int middlegameScore(int index, int square) {
+		return MIDDLEGAME_SCORES[index][square];
+	}
+
+	/**
+	 * Returns what a piece on a square adds to the endgame score of a
+	 * position, from white's point of view.
+	 *
+	 * @param index The index of the piece. 0 <= index < Piece.NUM_INDICES
+	 * @param square The square of the piece. 0 <= square < Bitboard.NUM_SPACES
+	 * @return The endgame score of the piece in centipawns.
+	 */
+	static int endgameScore(int index, int square) {
+		return ENDGAME_SCORES[index][square];
+	}
+
+	/**
+	 * Returns what a piece adds to the game phase.
+	 *
+	 * @param index The index of the piece. 0 <= index < Piece.NUM_INDICES
+	 * @return The phase weight of the piece.
+	 */
+	static int phaseWeight(int index) {
+		return PHASE_WEIGHTS[Piece.typeOf(index).ordinal()];
+	}
+
+	/**
+	 * Returns the static evaluation of the Board's current position for the
+	 * side to move.
+	 *
+	 * @param board The Board to evaluate. May not be null.
+	 * @return The score of the position in centipawns, positive if the side
+	 *         to move is better.
+	 */
+	public int evaluate(Board board) {
+		int middlegame = board.getMiddlegameScore();
+		int endgame = board.getEndgameScore();
+
+		long pawnHash = board.getPawnHash();
+		if (!pawnTable.probe(pawnHash)) {
+			scorePawns(board);
+			pawnTable.store(pawnHash, pawnMiddlegameScore, pawnEndgameScore);
+		}
+		middlegame += pawnTable.getMiddlegameScore();
+		endgame += pawnTable.getEndgameScore();
+
+		// the pawn attacks of both sides are needed to score the pieces
+		long occupancy = board.getOccupancy();
+		findPawnAttacks(board, WHITE);
+		findPawnAttacks(board, BLACK);
+		scorePieceAttacks(board, WHITE, occupancy);
+		scorePieceAttacks(board, BLACK, occupancy);
+		scoreThreats(board, WHITE);
+		scoreThreats(board, BLACK);
+		middlegame += attackMiddlegameScores[WHITE] - attackMiddlegameScores[BLACK];
+		endgame += attackEndgameScores[WHITE] - attackEndgameScores[BLACK];
+
+		int phase = Math.min(board.getGamePhase(), MAX_PHASE);
+		int score = (middlegame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
+		return board.isWhiteToMove() ? score : -score;
+	}
+
+	/**
+	 * Helper method for evaluate() that scores the pawn structure of the
+	 * Board from white's point of view, leaving the scores in
+	 * pawnMiddlegameScore and pawnEndgameScore.
+	 */
+	private void scorePawns(Board board) {
+		long whitePawns = board.getBitboard(Piece.PieceType.PAWN, true);
+		long blackPawns = board.getBitboard(Piece.PieceType.PAWN, false);
+		pawnMiddlegameScore = 0;
+		pawnEndgameScore = 0;
+		scorePawns(whitePawns, blackPawns, true);
+		scorePawns(blackPawns, whitePawns, false);
+	}
+
+	/**
+	 * Helper method for scorePawns(Board) that adds the scores of one side's
+	 * pawns, negated for black.
+	 *
+	 * @param pawns The pawns to score.
+	 * @param enemyPawns The other side's pawns.
+	 * @param isWhite A boolean indicating whether the pawns are white.
+	 */
+	private void scorePawns(long pawns, long enemyPawns, boolean isWhite) {
+		int color = isWhite ? WHITE : BLACK;
+		int middlegame = 0;
+		int endgame = 0;
+		long remaining = pawns;
+		while (remaining != Bitboard.EMPTY) {
+			int square = Long.numberOfTrailingZeros(remaining);
+			remaining &= remaining - 1;
+
+			// only the front pawn of a doubled pair can be passed
+			boolean doubled = (FRONT_SPANS[color][square] & pawns) != Bitboard.EMPTY;
+			if (doubled) {
+				middlegame += DOUBLED_PAWN_MIDDLEGAME;
+				endgame += DOUBLED_PAWN_ENDGAME;
+			} else if ((PASSED_PAWN_MASKS[color][square] & enemyPawns) == Bitboard.EMPTY) {
+				int rank = isWhite ? Board.MAX_ROW - Bitboard.row(square) : Bitboard.row(square);
+				middlegame += PASSED_PAWN_MIDDLEGAME[rank];
+				endgame += PASSED_PAWN_ENDGAME[rank];
+			}
+
+			// A backward pawn has no pawns beside or behind it to support
+			// its advance, and an enemy pawn guards the space in front of it.
+			if ((ADJACENT_FILES[Bitboard.col(square)] & pawns) == Bitboard.EMPTY) {
+				middlegame += ISOLATED_PAWN_MIDDLEGAME;
+				endgame += ISOLATED_PAWN_ENDGAME;
+			} else if ((SUPPORT_MASKS[color][square] & pawns) == Bitboard.EMPTY) {
+				int stop = isWhite ? square - NUM_FILES : square + NUM_FILES;
+				if ((Bitboard.pawnAttacks(stop, isWhite) & enemyPawns) != Bitboard.EMPTY) {
+					middlegame += BACKWARD_PAWN_MIDDLEGAME;
+					endgame += BACKWARD_PAWN_ENDGAME;
+				}
+			}
+		}
+		pawnMiddlegameScore += isWhite ? middlegame : -middlegame;
+		pawnEndgameScore += isWhite ? endgame : -endgame;
+	}
+
+	/**
+	 * Helper method for evaluate() that starts the attack maps of a color
+	 * with the spaces its pawns attack, and scores its pawn forks: pawns
+	 * attacking two enemy pieces other than pawns.
+	 *
+	 * @param board The Board being evaluated.
+	 * @param color WHITE or BLACK.
+	 */
+	private void findPawnAttacks(Board board, int color) {
+		boolean isWhite = color == WHITE;
+		long targets = board.getOccupancy(!isWhite) & ~board.getBitboard(Piece.PieceType.PAWN, !isWhite);
+		long pawnAttacks = Bitboard.EMPTY;
+		long doublePawnAttacks = Bitboard.EMPTY;
+		int forks = 0;
+		long pawns = board.getBitboard(Piece.PieceType.PAWN, isWhite);
+		while (pawns != Bitboard.EMPTY) {
+			int square = Long.numberOfTrailingZeros(pawns);
+			pawns &= pawns - 1;
+			long pawnAttack = Bitboard.pawnAttacks(square, isWhite);
+			doublePawnAttacks |= pawnAttacks & pawnAttack;
+			pawnAttacks |= pawnAttack;
+			if (Long.bitCount(pawnAttack & targets) >= 2) {
+				forks++;
+			}
+		}
+
+		long[] typeAttacks = attacksByType[color];
+		for (int type = 0; type < typeAttacks.length; type++) {
+			typeAttacks[type] = Bitboard.EMPTY;
+		}
+		typeAttacks[Piece.PieceType.PAWN.ordinal()] = pawnAttacks;
+		attacks[color] = pawnAttacks;
+		doubleAttacks[color] = doublePawnAttacks;
+		attackMiddlegameScores[color] = forks * FORK_MIDDLEGAME;
+		attackEndgameScores[color] = forks * FORK_ENDGAME;
+	}
+
+	/**
+	 * Helper method for evaluate() that adds the attacks of a color's pieces
+	 * to its attack maps, and scores their mobility, their pressure on the
+	 * spaces around the enemy king and forks by its minor pieces: knights
+	 * or bishops attacking two of the enemy rooks, queens and king. <br>
+	 * pre: findPawnAttacks() has been called for both colors
+	 *
+	 * @param board The Board being evaluated.
+	 * @param color WHITE or BLACK.
+	 * @param occupancy The occupied spaces of the board.
+	 */
+	private void scorePieceAttacks(Board board, int color, long occupancy) {
+		boolean isWhite = color == WHITE;
+		int enemy = color ^ 1;
+		long safe = ~board.getOccupancy(isWhite) & ~attacksByType[enemy][Piece.PieceType.PAWN.ordinal()];
+		long enemyKing = board.getBitboard(Piece.PieceType.KING, !isWhite);
+		long kingZone = Bitboard.KING_ATTACKS[Long.numberOfTrailingZeros(enemyKing)] | enemyKing;
+		long forkTargets = enemyKing | board.getBitboard(Piece.PieceType.ROOK, !isWhite)
+				| board.getBitboard(Piece.PieceType.QUEEN, !isWhite);
+
+		int middlegame = 0;
+		int endgame = 0;
+		int kingAttackers = 0;
+		int kingAttackUnits = 0;
+		for (Piece.PieceType type : PIECE_TYPES) {
+			int t = type.ordinal();
+			long pieces = board.getBitboard(type, isWhite);
+			while (pieces != Bitboard.EMPTY) {
+				int square = Long.numberOfTrailingZeros(pieces);
+				pieces &= pieces - 1;
+				long pieceAttacks = attacksFrom(type, square, occupancy);
+				doubleAttacks[color] |= attacks[color] & pieceAttacks;
+				attacks[color] |= pieceAttacks;
+				attacksByType[color][t] |= pieceAttacks;
+				if (type == Piece.PieceType.KING) {
+					continue;
+				}
+
+				int mobility = Long.bitCount(pieceAttacks & safe) - TYPICAL_MOBILITY[t];
+				middlegame += mobility * MOBILITY_MIDDLEGAME[t];
+				endgame += mobility * MOBILITY_ENDGAME[t];
+				long zoneAttacks = pieceAttacks & kingZone;
+				if (zoneAttacks != Bitboard.EMPTY) {
+					kingAttackers++;
+					kingAttackUnits += KING_ATTACK_WEIGHTS[t] * Long.bitCount(zoneAttacks);
+				}
+				if ((type == Piece.PieceType.KNIGHT || type == Piece.PieceType.BISHOP)
+						&& Long.bitCount(pieceAttacks & forkTargets) >= 2) {
+					middlegame += FORK_MIDDLEGAME;
+					endgame += FORK_ENDGAME;
+				}
+			}
+		}
+		if (kingAttackers >= KING_ATTACKERS_FOR_DANGER) {
+			middlegame += Math.min(kingAttackUnits * kingAttackUnits / KING_DANGER_DIVISOR, MAX_KING_DANGER);
+		}
+		attackMiddlegameScores[color] += middlegame;
+		attackEndgameScores[color] += endgame;
+	}
+
+	/**
+	 * Helper method for scorePieceAttacks() that returns the spaces a piece
+	 * other than a pawn attacks.
+	 */
+	private static long attacksFrom(Piece.PieceType type, int square, long occupancy) {
+		switch (type) {
+			case KNIGHT:
+				return Bitboard.KNIGHT_ATTACKS[square];
+			case BISHOP:
+				return Bitboard.bishopAttacks(square, occupancy);
+			case ROOK:
+				return Bitboard.rookAttacks(square, occupancy);
+			case QUEEN:
+				return Bitboard.queenAttacks(square, occupancy);
+			default:
+				return Bitboard.KING_ATTACKS[square];
+		}
+	}
+
+	/**
+	 * Helper method for evaluate() that scores the enemy pieces a color
+	 * threatens, from the finished attack maps: pieces attacked by a pawn,
+	 * rooks and queens attacked by a minor piece, queens attacked by a rook,
+	 * and pieces other than the king that are attacked and not defended.
+	 * <br>
+	 * pre: scorePieceAttacks() has been called for both colors
+	 *
+	 * @param board The Board being evaluated.
+	 * @param color WHITE or BLACK.
+	 */
+	private void scoreThreats(Board board, int color) {
+		boolean isWhite = color == WHITE;
+		long[] typeAttacks = attacksByType[color];
+		long enemyPieces = board.getOccupancy(!isWhite) & ~board.getBitboard(Piece.PieceType.KING, !isWhite);
+		long enemyPawns = board.getBitboard(Piece.PieceType.PAWN, !isWhite);
+		long enemyQueens = board.getBitboard(Piece.PieceType.QUEEN, !isWhite);
+		long enemyMajors = board.getBitboard(Piece.PieceType.ROOK, !isWhite) | enemyQueens;
+		long minorAttacks = typeAttacks[Piece.PieceType.KNIGHT.ordinal()] | typeAttacks[Piece.PieceType.BISHOP.ordinal()];
+
+		int byPawn = Long.bitCount(typeAttacks[Piece.PieceType.PAWN.ordinal()] & enemyPieces & ~enemyPawns);
+		int byMinor = Long.bitCount(minorAttacks & enemyMajors);
+		int byRook = Long.bitCount(typeAttacks[Piece.PieceType.ROOK.ordinal()] & enemyQueens);
+		int hanging = Long.bitCount(attacks[color] & ~attacks[color ^ 1] & enemyPieces);
+		attackMiddlegameScores[color] += byPawn * THREAT_BY_PAWN_MIDDLEGAME + byMinor * THREAT_BY_MINOR_MIDDLEGAME
+				+ byRook * THREAT_BY_ROOK_MIDDLEGAME + hanging * HANGING_MIDDLEGAME;
+		attackEndgameScores[color] += byPawn * THREAT_BY_PAWN_ENDGAME + byMinor * THREAT_BY_MINOR_ENDGAME
+				+ byRook * THREAT_BY_ROOK_ENDGAME + hanging * HANGING_ENDGAME;
+	}
+
+	/**
+	 * Returns how often evaluate() has found the pawn structure of a
+	 * position already scored in its pawn hash table.
+	 *
+	 * @return The number of hits in a thousand evaluations, or 0 before the
+	 *         first evaluation.
+	 */
+	public int getPawnHashHitPermill() {
+		return pawnTable.getHitPermill();
+	}
+}
@@ -0,0 +1,49 @@
+package chess;
+
+/**
+ * The state of a game for the side to move, as returned by
+ * Board.getGameResult(). Every result but IN_PROGRESS ends the game, and
+ * every result but IN_PROGRESS and CHECKMATE is a draw.
+ */
+public enum GameResult {
+	IN_PROGRESS("The game is still in progress"),
+	CHECKMATE("Checkmate"),
+	STALEMATE("Draw by stalemate"),
+	INSUFFICIENT_MATERIAL("Draw by insufficient material"),
+	FIFTY_MOVE_RULE("Draw by the fifty-move rule"),
+	THREEFOLD_REPETITION("Draw by threefold repetition");
+
+	private final String description;
+
+	GameResult(String description) {
+		this.description = description;
+	}
+
+	/**
+	 * Returns whether this result ends the game.
+	 * 
+	 * @return True if the game is over, false if it is still in progress.
+	 */
+	public boolean isGameOver() {
+		return this != IN_PROGRESS;
+	}
+
+	/**
+	 * Returns whether this result ends the game in a draw.
+	 * 
+	 * @return True if the game is drawn, false if it was won or is still
+	 *         in progress.
+	 */
+	public boolean isDraw() {
+		return this != IN_PROGRESS && this != CHECKMATE;
+	}
+
+	/**
+	 * Returns a description of this result that can be shown to a player.
+	 * 
+	 * @return The description of the result.
+	 */
+	public String getDescription() {
+		return description;
+	}
+}
@@ -1,6 +1,9 @@
+package chess;
 
 /**
- * A class that represents a move in chess.
+ * A class that represents a move in chess. The board and search work with
+ * moves packed into ints (see PackedMove); a Move is a view of a packed
+ * move in terms of the Pieces and Spaces involved.
  * 
  * @author jstenglein 11/19/16
  */
@@ -11,6 +14,7 @@ public class Move {
 	private Piece capturedPiece;
 	private Space source;
 	private Space dest;
+	private int packedMove;
 	
 	
 	/**
@@ -57,6 +61,117 @@ public class Move {
 		this.capturedPiece = capturedPiece;
 		this.source = source;
 		this.dest = dest;
+		this.packedMove = pack();
+	}
+	
+	/**
+	 * Creates a new Move object that views the given packed move on the
+	 * given board. The board must be in the position the move was generated
+	 * for. This object is immutable.
+	 * 
+	 * @param packedMove The packed move. May not be PackedMove.NULL_MOVE.
+	 * @param board The board the move will be made on. May not be null.
+	 */
+	public Move(int packedMove, Board board) {
+
+		// check preconditions
+		if (packedMove == PackedMove.NULL_MOVE)
+			throw new IllegalArgumentException("packedMove may not be the null move.");
+		else if (board == null)
+			throw new IllegalArgumentException("board may not be null.");
+
+		int from = PackedMove.getFrom(packedMove);
+		int to = PackedMove.getTo(packedMove);
+		this.source = board.getSpace(Bitboard.row(from), Bitboard.col(from));
+		this.dest = board.getSpace(Bitboard.row(to), Bitboard.col(to));
+		this.movedPiece = source.getPiece();
+		if (PackedMove.isEnPassant(packedMove))
+			this.capturedPiece = board.getSpace(Bitboard.row(from), Bitboard.col(to)).getPiece();
+		else
+			this.capturedPiece = dest.getPiece();
+		this.packedMove = packedMove;
+	}
+	
+	/**
+	 * Creates a copy of the given Move with a different packed form. Used
+	 * by withPromotion().
+	 */
+	private Move(Move move, int packedMove) {
+		this.movedPiece = move.movedPiece;
+		this.capturedPiece = move.capturedPiece;
+		this.source = move.source;
+		this.dest = move.dest;
+		this.packedMove = packedMove;
+	}
+	
+	/**
+	 * Helper method for the constructors that packs this Move into an int.
+	 * A pawn reaching the last row is packed as a promotion to a queen.
+	 * 
+	 * @return The packed form of this Move.
+	 */
+	private int pack() {
+		int from = Bitboard.square(source.getRow(), source.getCol());
+		int to = Bitboard.square(dest.getRow(), dest.getCol());
+		int captured = capturedPiece == null ? Piece.NO_INDEX : capturedPiece.getIndex();
+		int flag = PackedMove.NORMAL;
+		Piece.PieceType promotion = null;
+
+		if (movedPiece.getType() == Piece.PieceType.KING && Math.abs(source.getCol() - dest.getCol()) == 2) {
+			flag = PackedMove.CASTLE;
+		} else if (movedPiece.getType() == Piece.PieceType.PAWN) {
+			if (capturedPiece != null && capturedPiece.getRow() != dest.getRow()) {
+				flag = PackedMove.EN_PASSANT;
+			} else if (Math.abs(source.getRow() - dest.getRow()) == 2) {
+				flag = PackedMove.DOUBLE_PAWN_PUSH;
+			}
+			if (dest.getRow() == Board.MIN_ROW || dest.getRow() == Board.MAX_ROW) {
+				promotion = Piece.PieceType.QUEEN;
+			}
+		}
+
+		return PackedMove.withPromotion(PackedMove.encode(from, to, movedPiece.getIndex(), captured, flag), promotion);
+	}
+	
+	/**
+	 * Returns this Move packed into an int. <br>
+	 * pre: none <br>
+	 * O(1)
+	 * 
+	 * @return The packed form of this Move.
+	 */
+	public int getPackedMove() {
+		return packedMove;
+	}
+	
+	/**
+	 * Returns the type a pawn is promoted to in this Move. <br>
+	 * pre: none <br>
+	 * O(1)
+	 * 
+	 * @return The promotion type, or null if this Move is not a promotion.
+	 */
+	public Piece.PieceType getPromotion() {
+		return PackedMove.getPromotion(packedMove);
+	}
+	
+	/**
+	 * Returns a copy of this Move that promotes the pawn to the given type
+	 * instead. <br>
+	 * pre: this Move is a promotion, type is a knight, bishop, rook or queen
+	 * 
+	 * @param type The type to promote to. May not be null.
+	 * @return The Move with the new promotion type.
+	 */
+	public Move withPromotion(Piece.PieceType type) {
+
+		// check preconditions
+		if (getPromotion() == null)
+			throw new IllegalStateException("The Move is not a promotion: " + this);
+		else if (type == null || type == Piece.PieceType.PAWN || type == Piece.PieceType.KING)
+			throw new IllegalArgumentException("A pawn cannot be promoted to " + type);
+
+		return new Move(this, PackedMove.withPromotion(packedMove, type));
 	}
 
 	/**
@@ -0,0 +1,281 @@
+package chess;
+
+/**
+ * Hands out the legal moves of a position one at a time, best first, so
+ * that alpha-beta search finds its cutoffs early. The moves come in stages:
+ * <ol>
+ * <li>the hash move from the transposition table, before any moves are
+ * generated,</li>
+ * <li>captures and promotions that do not lose material, most valuable
+ * victim first and least valuable attacker first among equal victims
+ * (MVV-LVA),</li>
+ * <li>the killer moves: quiet moves that caused a cutoff at the same ply
+ * elsewhere in the tree,</li>
+ * <li>the remaining quiet moves, by their history score: how often and how
+ * deeply they have caused cutoffs in the search so far,</li>
+ * <li>the captures that lose material by static exchange evaluation, in
+ * the order they were put off.</li>
+ * </ol>
+ * Each stage is ordered lazily by selection, one move at a time, since a
+ * cutoff usually comes after only a few moves and sorting the rest would be
+ * wasted. Quiet moves are not scored at all until the captures run out, and
+ * the exchange on a square is only evaluated for a capture whose victim is
+ * worth less than its attacker, since any other capture cannot lose.
+ * <br>
+ * In quiescence search (see resetQuiescence()) there is no hash move and no
+ * killers, the captures that lose material are left out altogether, and the
+ * quiet moves are only picked if asked for.
+ * <br>
+ * A MovePicker belongs to one ply of one Search and is reused by calling
+ * reset() or resetQuiescence() at each node.
+ */
+final class MovePicker {
+
+	// class constants
+	private static final int STAGE_HASH_MOVE = 0;
+	private static final int STAGE_GENERATE = 1;
+	private static final int STAGE_CAPTURES = 2;
+	private static final int STAGE_KILLERS = 3;
+	private static final int STAGE_SCORE_QUIETS = 4;
+	private static final int STAGE_QUIETS = 5;
+	private static final int STAGE_BAD_CAPTURES = 6;
+	private static final int STAGE_DONE = 7;
+
+	// the victim counts for more than the attacker in MVV-LVA
+	private static final int VICTIM_WEIGHT = 16;
+	private static final int[] NO_KILLERS = new int[0];
+
+	// instance variables
+	private final Board board;
+	private final int[][] history;
+	private final int[] moves;
+	private final int[] scores;
+	private final int[] badCaptures;
+	private int stage;
+	private int hashMove;
+	private int[] killers;
+	private int killerIndex;
+	private int count;
+	private int captureEnd;
+	private int next;
+	private int badCaptureCount;
+	private int badCaptureIndex;
+	private boolean quiescence;
+	private boolean includeQuiets;
+
+	/**
+	 * Creates a MovePicker for the given Board.
+	 *
+	 * @param board The Board whose moves to pick. May not be null.
+	 * @param history The history scores of the Search, indexed by moved
+	 *            piece index and destination square. May not be null.
+	 */
+	MovePicker(Board board, int[][] history) {
+		this.board = board;
+		this.history = history;
+		moves = new int[Board.MAX_MOVES];
+		scores = new int[Board.MAX_MOVES];
+		badCaptures = new int[Board.MAX_MOVES];
+	}
+
+	/**
+	 * Starts picking the moves of the Board's current position.
+	 *
+	 * @param hashMove The move from the transposition table, or
+	 *            PackedMove.NULL_MOVE. It need not be legal here.
+	 * @param killers The killer moves for this ply, which need not be legal
+	 *            here either. May not be null.
+	 */
+	void reset(int hashMove, int[] killers) {
+		this.hashMove = hashMove;
+		this.killers = killers;
+		quiescence = false;
+		includeQuiets = true;
+		stage = STAGE_HASH_MOVE;
+	}
+
+	/**
+	 * Starts picking the moves of the Board's current position for
+	 * quiescence search: the captures and promotions that do not lose
+	 * material, followed by the quiet moves if includeQuiets is true.
+	 *
+	 * @param includeQuiets Whether to pick the quiet moves as well, for the
+	 *            caller to search those that give check.
+	 */
+	void resetQuiescence(boolean includeQuiets) {
+		hashMove = PackedMove.NULL_MOVE;
+		killers = NO_KILLERS;
+		quiescence = true;
+		this.includeQuiets = includeQuiets;
+		stage = STAGE_GENERATE;
+	}
+
+	/**
+	 * Returns the next move to search.
+	 *
+	 * @return The next legal move, or PackedMove.NULL_MOVE when there are
+	 *         no more.
+	 */
+	@SuppressWarnings("fallthrough")
+	int next() {
+		switch (stage) {
+			case STAGE_HASH_MOVE:
+				stage = STAGE_GENERATE;
+				if (board.isLegalMove(hashMove)) {
+					return hashMove;
+				}
+				hashMove = PackedMove.NULL_MOVE;
+				// fall through
+			case STAGE_GENERATE:
+				generate();
+				stage = STAGE_CAPTURES;
+				// fall through
+			case STAGE_CAPTURES:
+				while (next < captureEnd) {
+					int move = selectBest(captureEnd);
+					if (move == hashMove) {
+						continue;
+					}
+					if (!losesMaterial(move)) {
+						return move;
+					} else if (!quiescence) {
+						badCaptures[badCaptureCount++] = move;
+					}
+				}
+				if (!includeQuiets) {
+					stage = STAGE_DONE;
+					return PackedMove.NULL_MOVE;
+				}
+				stage = STAGE_KILLERS;
+				killerIndex = 0;
+				// fall through
+			case STAGE_KILLERS:
+				while (killerIndex < killers.length) {
+					int killer = killers[killerIndex++];
+					if (killer != hashMove && takeQuiet(killer)) {
+						return killer;
+					}
+				}
+				stage = STAGE_SCORE_QUIETS;
+				// fall through
+			case STAGE_SCORE_QUIETS:
+				for (int i = next; i < count; i++) {
+					int move = moves[i];
+					scores[i] = history[PackedMove.getPiece(move)][PackedMove.getTo(move)];
+				}
+				stage = STAGE_QUIETS;
+				// fall through
+			case STAGE_QUIETS:
+				while (next < count) {
+					int move = selectBest(count);
+					if (move != hashMove) {
+						return move;
+					}
+				}
+				stage = STAGE_BAD_CAPTURES;
+				badCaptureIndex = 0;
+				// fall through
+			case STAGE_BAD_CAPTURES:
+				if (badCaptureIndex < badCaptureCount) {
+					return badCaptures[badCaptureIndex++];
+				}
+				stage = STAGE_DONE;
+				// fall through
+			default:
+				return PackedMove.NULL_MOVE;
+		}
+	}
+
+	/**
+	 * Helper method for next() that generates the legal moves, puts the
+	 * captures and promotions before the quiet moves and scores them.
+	 */
+	private void generate() {
+		count = board.generateLegalMoves(board.isWhiteToMove(), moves);
+		captureEnd = 0;
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+				moves[i] = moves[captureEnd];
+				moves[captureEnd] = move;
+				scores[captureEnd] = scoreCapture(move);
+				captureEnd++;
+			}
+		}
+		next = 0;
+		badCaptureCount = 0;
+	}
+
+	/**
+	 * Helper method for generate() that returns the MVV-LVA score of a
+	 * capture or promotion, counting the piece a pawn promotes to as part
+	 * of what it wins.
+	 */
+	private static int scoreCapture(int move) {
+		int score = 0;
+		if (PackedMove.isCapture(move)) {
+			score += Piece.typeOf(PackedMove.getCaptured(move)).getValue() * VICTIM_WEIGHT;
+		}
+		Piece.PieceType promotion = PackedMove.getPromotion(move);
+		if (promotion != null) {
+			score += promotion.getValue() * VICTIM_WEIGHT;
+		}
+		return score - Piece.typeOf(PackedMove.getPiece(move)).getValue();
+	}
+
+	/**
+	 * Helper method for next() that returns whether a capture loses material
+	 * once the exchange on its square is played out. A promotion never does,
+	 * since it is searched for the piece it wins rather than the exchange.
+	 */
+	private boolean losesMaterial(int move) {
+		if (!PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+			return false;
+		}
+		int victim = Piece.typeOf(PackedMove.getCaptured(move)).getValue();
+		int attacker = Piece.typeOf(PackedMove.getPiece(move)).getValue();
+		return victim < attacker && board.staticExchangeEvaluation(move) < 0;
+	}
+
+	/**
+	 * Helper method for next() that swaps the highest scored move between
+	 * next and end into position next and returns it.
+	 */
+	private int selectBest(int end) {
+		int best = next;
+		for (int i = next + 1; i < end; i++) {
+			if (scores[i] > scores[best]) {
+				best = i;
+			}
+		}
+		int move = moves[best];
+		int score = scores[best];
+		moves[best] = moves[next];
+		scores[best] = scores[next];
+		moves[next] = move;
+		scores[next] = score;
+		next++;
+		return move;
+	}
+
+	/**
+	 * Helper method for next() that takes the given move out of the quiet
+	 * moves not yet returned, if it is one of them.
+	 *
+	 * @return True if the move was found and taken.
+	 */
+	private boolean takeQuiet(int move) {
+		if (move == PackedMove.NULL_MOVE) {
+			return false;
+		}
+		for (int i = next; i < count; i++) {
+			if (moves[i] == move) {
+				moves[i] = moves[next];
+				moves[next] = move;
+				next++;
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,180 @@
+package chess;
+
+/**
+ * A utility class for moves packed into a single int, so that move
+ * generation and search can work without allocating Move objects. The
+ * bits of a packed move are laid out as follows:
+ *
+ * <pre>
+ *  bits  0-5   source square
+ *  bits  6-11  destination square
+ *  bits 12-15  index of the moved piece (see Piece.index)
+ *  bits 16-19  index of the captured piece, or Piece.NO_INDEX
+ *  bits 20-21  flag: NORMAL, CASTLE, EN_PASSANT or DOUBLE_PAWN_PUSH
+ *  bits 22-24  ordinal of the promotion type, or 0 for no promotion
+ * </pre>
+ */
+public final class PackedMove {
+
+	// class constants
+	public static final int NULL_MOVE = 0;
+	public static final int NORMAL = 0;
+	public static final int CASTLE = 1;
+	public static final int EN_PASSANT = 2;
+	public static final int DOUBLE_PAWN_PUSH = 3;
+
+	private static final int TO_SHIFT = 6;
+	private static final int PIECE_SHIFT = 12;
+	private static final int CAPTURED_SHIFT = 16;
+	private static final int FLAG_SHIFT = 20;
+	private static final int PROMOTION_SHIFT = 22;
+	private static final int SQUARE_MASK = 0x3F;
+	private static final int PIECE_MASK = 0xF;
+	private static final int FLAG_MASK = 0x3;
+	private static final int PROMOTION_MASK = 0x7;
+
+	private PackedMove() {
+		// Not instantiable
+	}
+
+	/**
+	 * Returns a packed move with the given values and no promotion.
+	 *
+	 * @param from The source square. 0 <= from < Bitboard.NUM_SPACES
+	 * @param to The destination square. 0 <= to < Bitboard.NUM_SPACES
+	 * @param piece The index of the moved piece.
+	 * @param captured The index of the captured piece, or Piece.NO_INDEX.
+	 * @param flag One of NORMAL, CASTLE, EN_PASSANT or DOUBLE_PAWN_PUSH.
+	 * @return The packed move.
+	 */
+	public static int encode(int from, int to, int piece, int captured, int flag) {
+		return from | (to << TO_SHIFT) | (piece << PIECE_SHIFT) | (captured << CAPTURED_SHIFT) | (flag << FLAG_SHIFT);
+	}
+
+	/**
+	 * Returns the given move with its promotion type replaced.
+	 *
+	 * @param move The packed move.
+	 * @param type The type to promote to. May be null for no promotion.
+	 * @return The packed move with the new promotion type.
+	 */
+	public static int withPromotion(int move, Piece.PieceType type) {
+		int promotion = type == null ? 0 : type.ordinal();
+		return (move & ~(PROMOTION_MASK << PROMOTION_SHIFT)) | (promotion << PROMOTION_SHIFT);
+	}
+
+	/**
+	 * Returns the source square of the move.
+	 *
+	 * @param move The packed move.
+	 * @return The square the piece moves from.
+	 */
+	public static int getFrom(int move) {
+		return move & SQUARE_MASK;
+	}
+
+	/**
+	 * Returns the destination square of the move.
+	 *
+	 * @param move The packed move.
+	 * @return The square the piece moves to.
+	 */
+	public static int getTo(int move) {
+		return (move >>> TO_SHIFT) & SQUARE_MASK;
+	}
+
+	/**
+	 * Returns the index of the moved piece.
+	 *
+	 * @param move The packed move.
+	 * @return The index of the piece that moves.
+	 */
+	public static int getPiece(int move) {
+		return (move >>> PIECE_SHIFT) & PIECE_MASK;
+	}
+
+	/**
+	 * Returns the index of the captured piece.
+	 *
+	 * @param move The packed move.
+	 * @return The index of the captured piece, or Piece.NO_INDEX.
+	 */
+	public static int getCaptured(int move) {
+		return (move >>> CAPTURED_SHIFT) & PIECE_MASK;
+	}
+
+	/**
+	 * Returns true if the move captures a piece.
+	 *
+	 * @param move The packed move.
+	 * @return True if the move is a capture.
+	 */
+	public static boolean isCapture(int move) {
+		return getCaptured(move) != Piece.NO_INDEX;
+	}
+
+	/**
+	 * Returns the flag of the move.
+	 *
+	 * @param move The packed move.
+	 * @return One of NORMAL, CASTLE, EN_PASSANT or DOUBLE_PAWN_PUSH.
+	 */
+	public static int getFlag(int move) {
+		return (move >>> FLAG_SHIFT) & FLAG_MASK;
+	}
+
+	/**
+	 * Returns true if the move is a castle.
+	 *
+	 * @param move The packed move.
+	 * @return True if the move is a castle.
+	 */
+	public static boolean isCastle(int move) {
+		return getFlag(move) == CASTLE;
+	}
+
+	/**
+	 * Returns true if the move is an en passant capture.
+	 *
+	 * @param move The packed move.
+	 * @return True if the move is en passant.
+	 */
+	public static boolean isEnPassant(int move) {
+		return getFlag(move) == EN_PASSANT;
+	}
+
+	/**
+	 * Returns true if the move promotes a pawn.
+	 *
+	 * @param move The packed move.
+	 * @return True if the move is a promotion.
+	 */
+	public static boolean isPromotion(int move) {
+		return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;
+	}
+
+	/**
+	 * Returns the type the pawn promotes to.
+	 *
+	 * @param move The packed move.
+	 * @return The promotion type, or null if the move is not a promotion.
+	 */
+	public static Piece.PieceType getPromotion(int move) {
+		int promotion = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+		return promotion == 0 ? null : Piece.typeOf(promotion);
+	}
+
+	/**
+	 * Returns the move in coordinate notation, such as "e2e4" or "e7e8q".
+	 *
+	 * @param move The packed move.
+	 * @return The move as a String.
+	 */
+	public static String toString(int move) {
+		String result = Bitboard.squareName(getFrom(move)) + Bitboard.squareName(getTo(move));
+		Piece.PieceType promotion = getPromotion(move);
+		if (promotion != null)
+			result += Piece.symbolOf(promotion, false);
+		return result;
+	}
+}
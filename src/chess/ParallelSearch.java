@@ -0,0 +1,299 @@
+package chess;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A search over a Board on several threads at once, in the style known as
+ * Lazy SMP. The calling thread searches the Board itself, exactly as a
+ * Search would, and its result is the result of the ParallelSearch. Each
+ * helper thread searches its own copy of the position with its own Search,
+ * and all of them share one transposition table. The helpers do not report
+ * anything: they fill the table with results the main search then finds,
+ * which lets it cut off more and search deeper in the same time. Half of
+ * the helpers start one ply deeper than the main search, so that they stay
+ * ahead of it rather than repeat its work.
+ * <br>
+ * The helpers search copies made with Board.copyFrom(), which carry the
+ * positions since the last capture or pawn move, so they see repetitions
+ * of positions from before the search just as the main search does.
+ * <br>
+ * Like a Search, a ParallelSearch is not thread safe, except for stop(),
+ * which may be called from any thread. Its helper threads are daemon
+ * threads that wait between searches; shutdown() ends them.
+ */
+public class ParallelSearch {
+
+	// instance variables
+	private final Board board;
+	private final TranspositionTable table;
+	private final Search mainSearch;
+	private Board[] helperBoards;
+	private Search[] helperSearches;
+	private Future<?>[] helperResults;
+	private ExecutorService helperThreads;
+	private long helperNodes;
+	// applied to the helpers made by setThreads() as well
+	private boolean quiescenceChecks;
+
+	/**
+	 * Creates a ParallelSearch over the given Board that searches on the
+	 * given number of threads, counting the calling thread, with its own
+	 * transposition table of the default size.
+	 *
+	 * @param board The Board to search. May not be null.
+	 * @param threads The number of threads to search on. threads >= 1
+	 */
+	public ParallelSearch(Board board, int threads) {
+		this(board, new TranspositionTable(), threads);
+	}
+
+	/**
+	 * Creates a ParallelSearch over the given Board that searches on the
+	 * given number of threads, counting the calling thread, and stores its
+	 * results in the given transposition table.
+	 *
+	 * @param board The Board to search. May not be null.
+	 * @param table The transposition table to share. May not be null.
+	 * @param threads The number of threads to search on. threads >= 1
+	 */
+	public ParallelSearch(Board board, TranspositionTable table, int threads) {
+		mainSearch = new Search(board, table);
+		this.board = board;
+		this.table = table;
+		setThreads(threads);
+	}
+
+	/**
+	 * Sets the number of threads to search on, counting the calling thread.
+	 * The helper threads of the old setting are shut down. May not be called
+	 * during a search.
+	 *
+	 * @param threads The number of threads to search on. threads >= 1
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("The number of threads must be at least 1: " + threads);
+		}
+		shutdown();
+		int helpers = threads - 1;
+		helperBoards = new Board[helpers];
+		helperSearches = new Search[helpers];
+		helperResults = new Future<?>[helpers];
+		for (int i = 0; i < helpers; i++) {
+			helperBoards[i] = new Board(board);
+			helperSearches[i] = new Search(helperBoards[i], table);
+			helperSearches[i].setQuiescenceChecks(quiescenceChecks);
+		}
+		if (helpers > 0) {
+			helperThreads = Executors.newFixedThreadPool(helpers, new ThreadFactory() {
+				private int created;
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "search-helper-" + ++created);
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Returns the number of threads searched on, counting the calling thread.
+	 *
+	 * @return The number of threads.
+	 */
+	public int getThreads() {
+		return helperSearches.length + 1;
+	}
+
+	/**
+	 * Searches the current position to the given depth and returns its score.
+	 * This is iterativeSearch() with no time limit. <br>
+	 * pre: 1 <= depth <= Search.MAX_PLY
+	 *
+	 * @param depth The number of plies to search.
+	 * @return The score of the position for the side to move.
+	 */
+	public int search(int depth) {
+		return iterativeSearch(depth, null);
+	}
+
+	/**
+	 * Searches the current position as Search.iterativeSearch() does, with
+	 * the helper threads searching alongside until the main search ends.
+	 * When this method returns the helpers have stopped, and the Board is
+	 * left unchanged. <br>
+	 * pre: 1 <= maxDepth <= Search.MAX_PLY
+	 *
+	 * @param maxDepth The deepest iteration to search.
+	 * @param timeManager The time limits for the search, or null to search
+	 *            to maxDepth.
+	 * @return The score of the position for the side to move.
+	 */
+	public int iterativeSearch(int maxDepth, TimeManager timeManager) {
+		if (maxDepth < 1 || maxDepth > Search.MAX_PLY) {
+			throw new IllegalArgumentException("The depth must be between 1 and " + Search.MAX_PLY + ": " + maxDepth);
+		}
+		mainSearch.clearStop();
+		table.newSearch();
+		for (int i = 0; i < helperSearches.length; i++) {
+			final Search helper = helperSearches[i];
+			final int firstDepth = 1 + (i + 1) % 2;
+			helperBoards[i].copyFrom(board);
+			helper.clearStop();
+			helperResults[i] = helperThreads.submit(new Runnable() {
+				@Override
+				public void run() {
+					helper.iterate(maxDepth, null, firstDepth);
+				}
+			});
+		}
+
+		int score;
+		try {
+			score = mainSearch.iterate(maxDepth, timeManager, 1);
+		} finally {
+			stopHelpers();
+		}
+		return score;
+	}
+
+	/**
+	 * Helper method for iterativeSearch() that stops the helpers and waits
+	 * until they have finished, so that their Boards can be used again.
+	 */
+	private void stopHelpers() {
+		for (Search helper : helperSearches) {
+			helper.stop();
+		}
+		helperNodes = 0;
+		boolean interrupted = false;
+		RuntimeException failure = null;
+		for (int i = 0; i < helperResults.length; i++) {
+			while (true) {
+				try {
+					helperResults[i].get();
+					break;
+				} catch (InterruptedException e) {
+					// the helper uses its Board until it finishes, so wait
+					interrupted = true;
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = new IllegalStateException("A search helper failed.", e.getCause());
+					}
+					break;
+				}
+			}
+			helperResults[i] = null;
+			helperNodes += helperSearches[i].getNodes();
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Stops the current search as soon as possible. May be called from any
+	 * thread.
+	 */
+	public void stop() {
+		mainSearch.stop();
+	}
+
+	/**
+	 * Ends the helper threads. The ParallelSearch then searches on the
+	 * calling thread only, until setThreads() is called. May not be called
+	 * during a search.
+	 */
+	public void shutdown() {
+		if (helperThreads != null) {
+			helperThreads.shutdown();
+			helperThreads = null;
+		}
+		helperBoards = new Board[0];
+		helperSearches = new Search[0];
+		helperResults = new Future<?>[0];
+	}
+
+	/**
+	 * Sets whether quiescence search also searches the quiet moves that give
+	 * check, on every thread, including the threads of later calls to
+	 * setThreads(). See Search.setQuiescenceChecks().
+	 *
+	 * @param quiescenceChecks Whether to search checks in quiescence search.
+	 */
+	public void setQuiescenceChecks(boolean quiescenceChecks) {
+		this.quiescenceChecks = quiescenceChecks;
+		mainSearch.setQuiescenceChecks(quiescenceChecks);
+		for (Search helper : helperSearches) {
+			helper.setQuiescenceChecks(quiescenceChecks);
+		}
+	}
+
+	/**
+	 * Returns whether the last search was stopped before it reached its
+	 * depth or time limit.
+	 *
+	 * @return True if the search was stopped, false if it finished.
+	 */
+	public boolean isStopped() {
+		return mainSearch.isStopped();
+	}
+
+	/**
+	 * Returns the number of nodes visited by the last search on all threads
+	 * together.
+	 *
+	 * @return The number of nodes searched.
+	 */
+	public long getNodes() {
+		return mainSearch.getNodes() + helperNodes;
+	}
+
+	/**
+	 * Returns the depth of the last iteration that the main search of the
+	 * last search completed.
+	 *
+	 * @return The completed depth, or 0 if no iteration finished.
+	 */
+	public int getCompletedDepth() {
+		return mainSearch.getCompletedDepth();
+	}
+
+	/**
+	 * Returns the best move found by the last search.
+	 *
+	 * @return The packed best move, or PackedMove.NULL_MOVE if the side to
+	 *         move has no legal move.
+	 */
+	public int getBestMove() {
+		return mainSearch.getBestMove();
+	}
+
+	/**
+	 * Returns the score of the best move found by the last search.
+	 *
+	 * @return The score for the side to move.
+	 */
+	public int getBestScore() {
+		return mainSearch.getBestScore();
+	}
+
+	/**
+	 * Returns the principal variation of the last search: the best move and
+	 * the replies the search expects to it.
+	 *
+	 * @return A new array of packed moves, starting with the best move.
+	 */
+	public int[] getPrincipalVariation() {
+		return mainSearch.getPrincipalVariation();
+	}
+}
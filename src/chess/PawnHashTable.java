@@ -0,0 +1,103 @@
+package chess;
+
+/**
+ * A small hash table of pawn structure scores, keyed by the Zobrist hash of
+ * the pawns alone (see Board.getPawnHash()). The pawns change in few of the
+ * moves of a search, so most positions an Evaluator sees have a pawn
+ * structure it has scored before. An entry simply replaces whatever was in
+ * its slot.
+ * <br>
+ * A table starts out holding the scores of a board without pawns, whose key
+ * is 0 and whose scores are 0, in every slot. A PawnHashTable belongs to one
+ * Evaluator and is not thread safe.
+ */
+final class PawnHashTable {
+
+	// class constants
+	static final int DEFAULT_ENTRIES = 1 << 14;
+
+	// instance variables
+	private final long[] keys;
+	private final int[] middlegameScores;
+	private final int[] endgameScores;
+	private final int mask;
+	private int slot;
+	private long probes;
+	private long hits;
+
+	/**
+	 * Creates an empty PawnHashTable.
+	 *
+	 * @param entries The number of entries. Must be a power of two.
+	 */
+	PawnHashTable(int entries) {
+		if (entries < 1 || Integer.bitCount(entries) != 1) {
+			throw new IllegalArgumentException("The number of entries must be a power of two: " + entries);
+		}
+		keys = new long[entries];
+		middlegameScores = new int[entries];
+		endgameScores = new int[entries];
+		mask = entries - 1;
+	}
+
+	/**
+	 * Looks up the entry for the given pawn structure. Its scores are then
+	 * available from getMiddlegameScore() and getEndgameScore(), and a miss
+	 * can be filled in with store().
+	 *
+	 * @param key The Zobrist hash of the pawns.
+	 * @return True if the table has an entry for the pawn structure.
+	 */
+	boolean probe(long key) {
+		slot = (int) key & mask;
+		probes++;
+		if (keys[slot] == key) {
+			hits++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Stores the scores of a pawn structure in the slot of the last probe.
+	 * <br>
+	 * pre: key is the key of the last probe
+	 *
+	 * @param key The Zobrist hash of the pawns.
+	 * @param middlegameScore The middlegame score of the pawn structure.
+	 * @param endgameScore The endgame score of the pawn structure.
+	 */
+	void store(long key, int middlegameScore, int endgameScore) {
+		keys[slot] = key;
+		middlegameScores[slot] = middlegameScore;
+		endgameScores[slot] = endgameScore;
+	}
+
+	/**
+	 * Returns the middlegame score of the entry of the last probe.
+	 *
+	 * @return The middlegame score in centipawns, from white's point of view.
+	 */
+	int getMiddlegameScore() {
+		return middlegameScores[slot];
+	}
+
+	/**
+	 * Returns the endgame score of the entry of the last probe.
+	 *
+	 * @return The endgame score in centipawns, from white's point of view.
+	 */
+	int getEndgameScore() {
+		return endgameScores[slot];
+	}
+
+	/**
+	 * Returns how many of the probes so far found their pawn structure.
+	 *
+	 * @return The number of hits in a thousand probes, or 0 if there were
+	 *         no probes.
+	 */
+	int getHitPermill() {
+		return probes == 0 ? 0 : (int) (hits * 1000 / probes);
+	}
+}
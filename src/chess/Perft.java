@@ -0,0 +1,137 @@
+package chess;
+
+import java.util.Map;
+
+/**
+ * A command-line runner that verifies and times the move generator by
+ * counting the leaf nodes of the move tree (perft) for a suite of standard
+ * positions and comparing them to their known counts.
+ * <p>
+ * Usage:
+ * <pre>
+ *  java chess.Perft                            run the suite to depth 4
+ *  java chess.Perft &lt;depth&gt;                    run the suite to the given depth
+ *  java chess.Perft divide &lt;depth&gt; [fen]       print the count below each move
+ * </pre>
+ */
+public class Perft {
+
+	// class constants
+	private static final int DEFAULT_DEPTH = 4;
+	private static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+	// the positions in the suite, with their known counts starting at depth
+	// 1, shared with the unit tests
+	static final String[] NAMES = {
+			"Start position",
+			"Kiwipete",
+			"Position 3 (en passant and pins)",
+			"Position 4 (castling and promotions)",
+			"Position 5",
+			"Position 6",
+	};
+	static final String[] FENS = {
+			START_POSITION,
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+			"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+			"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+			"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+	};
+	static final long[][] EXPECTED_COUNTS = {
+			{20L, 400L, 8902L, 197281L, 4865609L, 119060324L},
+			{48L, 2039L, 97862L, 4085603L, 193690690L},
+			{14L, 191L, 2812L, 43238L, 674624L, 11030083L, 178633661L},
+			{6L, 264L, 9467L, 422333L, 15833292L, 706045033L},
+			{44L, 1486L, 62379L, 2103487L, 89941194L},
+			{46L, 2079L, 89890L, 3894594L, 164075551L},
+	};
+
+	/**
+	 * Runs the perft suite or a divide, depending on the arguments.
+	 *
+	 * @param args The command-line arguments. See the class comment.
+	 */
+	public static void main(String[] args) {
+		if (args.length > 0 && args[0].equals("divide")) {
+			if (args.length < 2) {
+				System.out.println("Usage: java chess.Perft divide <depth> [fen]");
+				return;
+			}
+			int depth = Integer.parseInt(args[1]);
+			String fen = START_POSITION;
+			if (args.length > 2) {
+				// the FEN fields arrive as separate arguments
+				fen = "";
+				for (int i = 2; i < args.length; i++) {
+					fen += args[i] + " ";
+				}
+			}
+			divide(new Board(fen), depth);
+		} else {
+			int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+			boolean passed = runSuite(depth);
+			System.exit(passed ? 0 : 1);
+		}
+	}
+
+	/**
+	 * Runs perft on every position in the suite from depth 1 up to the given
+	 * depth, printing the node count, elapsed time and speed of each.
+	 *
+	 * @param maxDepth The deepest search to run. Positions whose count is not
+	 *            known that deep stop at their deepest known count.
+	 * @return True if every count matched its known value.
+	 */
+	public static boolean runSuite(int maxDepth) {
+		boolean passed = true;
+		long totalNodes = 0;
+		long totalNanos = 0;
+		for (int i = 0; i < FENS.length; i++) {
+			System.out.println(NAMES[i] + ": " + FENS[i]);
+			Board board = new Board(FENS[i]);
+			int depthLimit = Math.min(maxDepth, EXPECTED_COUNTS[i].length);
+			for (int depth = 1; depth <= depthLimit; depth++) {
+				long start = System.nanoTime();
+				long nodes = board.perft(depth);
+				long nanos = System.nanoTime() - start;
+				totalNodes += nodes;
+				totalNanos += nanos;
+
+				long expected = EXPECTED_COUNTS[i][depth - 1];
+				boolean matches = nodes == expected;
+				passed &= matches;
+				System.out.printf("  depth %d: %12d nodes %8d ms %12d nps  %s%n", depth, nodes,
+						nanos / 1000000, nodesPerSecond(nodes, nanos),
+						matches ? "OK" : "FAILED (expected " + expected + ")");
+			}
+		}
+		System.out.printf("Total: %d nodes in %d ms, %d nps%n", totalNodes, totalNanos / 1000000,
+				nodesPerSecond(totalNodes, totalNanos));
+		System.out.println(passed ? "All counts match." : "Some counts do not match.");
+		return passed;
+	}
+
+	/**
+	 * Prints the perft count below each legal move in the given position,
+	 * followed by the total.
+	 *
+	 * @param board The position to divide. May not be null.
+	 * @param depth The number of plies to search, including the first move. depth >= 1
+	 */
+	public static void divide(Board board, int depth) {
+		long total = 0;
+		for (Map.Entry<String, Long> entry : board.divide(depth).entrySet()) {
+			System.out.println(entry.getKey() + ": " + entry.getValue());
+			total += entry.getValue();
+		}
+		System.out.println("Total: " + total);
+	}
+
+	/**
+	 * Returns the number of nodes searched per second.
+	 */
+	private static long nodesPerSecond(long nodes, long nanos) {
+		return nanos == 0 ? 0 : nodes * 1000000000L / nanos;
+	}
+}
@@ -1,5 +1,4 @@
-import java.awt.Graphics;
-import java.awt.image.BufferedImage;
+package chess;
 
 /**
  * A class that represents a chess piece.
@@ -10,20 +9,38 @@ public class Piece implements Comparable<Piece> {
 
 	// class constants
 	public enum PieceType {
-		PAWN("pawn", 1),
-		KNIGHT("knight", 3),
-		BISHOP("bishop", 3),
-		ROOK("rook", 5),
-		QUEEN("queen", 9),
-		KING("king", 6);
+		PAWN("pawn", 1, 'p'),
+		KNIGHT("knight", 3, 'n'),
+		BISHOP("bishop", 3, 'b'),
+		ROOK("rook", 5, 'r'),
+		QUEEN("queen", 9, 'q'),
+		KING("king", 6, 'k');
 		
 		private final String name;
 		private final int value;
-		private PieceType(String name, int value) {
+		private final char symbol;
+		private PieceType(String name, int value, char symbol) {
 			this.name = name;
 			this.value = value;
+			this.symbol = symbol;
+		}
+
+		/**
+		 * Returns the material value of this type of piece according to
+		 * chess convention.
+		 * 
+		 * @return The material value, in pawns.
+		 */
+		public int getValue() {
+			return value;
 		}
 	}
+	
+	// Every type and color of piece has an index, used to pick its bitboard
+	// and to store it in packed moves. White pieces come first.
+	public static final int NUM_INDICES = 12;
+	public static final int NO_INDEX = NUM_INDICES;
+	private static final PieceType[] TYPES = PieceType.values();
 
 	// instance variables
 	private PieceType type;
@@ -31,9 +48,10 @@ public class Piece implements Comparable<Piece> {
 	private int row;
 	private int col;
 	private boolean isCaptured;
-	private boolean hasJustMoved;
 	private boolean promoted;
-	private int timesMoved;
+	
+	// the position of this Piece in its Board's list of active pieces
+	private int listIndex;
 
 	/**
 	 * Creates a Piece object with the specified values. <br>
@@ -58,9 +76,118 @@ public class Piece implements Comparable<Piece> {
 		this.row = row;
 		this.col = col;
 		isCaptured = false;
-		hasJustMoved = false;
 		promoted = false;
-		timesMoved = 0;
+	}
+
+	/**
+	 * Resets this Piece to an active, unpromoted Piece of the given type,
+	 * color and position, so that the object can be reused for a new
+	 * position. <br>
+	 * pre: Board.MIN_ROW <= row <= Board.MAX_ROW &&
+	 *      Board.MIN_COL <= col <= Board.MAX_COL
+	 * 
+	 * @param type The type of Piece.
+	 * @param isWhite A boolean indicating whether the Piece is white or black
+	 * @param row The row of the Board that the Piece is on.
+	 * @param col The col of the Board that the Piece is on.
+	 */
+	public void reset(PieceType type, boolean isWhite, int row, int col) {
+		// check precondition
+		if (row < Board.MIN_ROW || row > Board.MAX_ROW || col < Board.MIN_COL || col > Board.MAX_COL)
+			throw new IllegalArgumentException("Specifed row/col is not valid. Row: " + row + ", col: " + col);
+
+		this.type = type;
+		this.isWhite = isWhite;
+		this.row = row;
+		this.col = col;
+		isCaptured = false;
+		promoted = false;
+	}
+
+	/**
+	 * Creates a Piece object with the same type, color, position and state
+	 * as the given Piece.
+	 * 
+	 * @param other The Piece to copy. May not be null.
+	 */
+	public Piece(Piece other) {
+		copyFrom(other);
+	}
+
+	/**
+	 * Sets this Piece's type, color, position and state to those of
+	 * the given Piece.
+	 * 
+	 * @param other The Piece to copy. May not be null.
+	 */
+	public void copyFrom(Piece other) {
+		type = other.type;
+		isWhite = other.isWhite;
+		row = other.row;
+		col = other.col;
+		isCaptured = other.isCaptured;
+		promoted = other.promoted;
+		listIndex = other.listIndex;
+	}
+
+	/**
+	 * Returns the index of pieces of the given type and color.
+	 * 
+	 * @param type The type of piece.
+	 * @param isWhite A boolean indicating whether the piece is white.
+	 * @return The index of the piece, 0 <= index < NUM_INDICES
+	 */
+	public static int index(PieceType type, boolean isWhite) {
+		return isWhite ? type.ordinal() : TYPES.length + type.ordinal();
+	}
+	
+	/**
+	 * Returns the type of the pieces with the given index.
+	 * 
+	 * @param index The index of the piece. 0 <= index < NUM_INDICES
+	 * @return The type of piece.
+	 */
+	public static PieceType typeOf(int index) {
+		return TYPES[index % TYPES.length];
+	}
+	
+	/**
+	 * Returns whether the pieces with the given index are white.
+	 * 
+	 * @param index The index of the piece. 0 <= index < NUM_INDICES
+	 * @return True if the index is of a white piece.
+	 */
+	public static boolean isWhiteIndex(int index) {
+		return index < TYPES.length;
+	}
+	
+	/**
+	 * Returns the type of piece with the given symbol, as used in FEN and
+	 * move notation. Upper and lower case symbols give the same type.
+	 * 
+	 * @param symbol The symbol of the piece, such as 'N' or 'n' for a knight.
+	 * @return The type of piece, or null if the symbol is not a piece.
+	 */
+	public static PieceType typeForSymbol(char symbol) {
+		char lowerCase = Character.toLowerCase(symbol);
+		for (PieceType type : TYPES) {
+			if (type.symbol == lowerCase)
+				return type;
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns the symbol of the given type of piece, as used in FEN and move
+	 * notation.
+	 * 
+	 * @param type The type of piece.
+	 * @param isWhite A boolean indicating whether to return the white (upper
+	 *            case) or black (lower case) symbol.
+	 * @return The symbol of the piece.
+	 */
+	public static char symbolOf(PieceType type, boolean isWhite) {
+		return isWhite ? Character.toUpperCase(type.symbol) : type.symbol;
 	}
 
 	/**
@@ -76,6 +203,19 @@ public class Piece implements Comparable<Piece> {
 
 		type = newType;
 	}
+	
+	/**
+	 * Turns a promoted piece back into a pawn, undoing promote(). <br>
+	 * pre: This piece was promoted.
+	 */
+	public void demote() {
+		// check precondition
+		if (!promoted)
+			throw new IllegalStateException("The piece must have been promoted, but is a " + type.name);
+
+		type = PieceType.PAWN;
+		promoted = false;
+	}
 
 	/**
 	 * Returns the type of this Piece.
@@ -85,6 +225,15 @@ public class Piece implements Comparable<Piece> {
 	public PieceType getType() {
 		return type;
 	}
+	
+	/**
+	 * Returns the index of this Piece's type and color.
+	 * 
+	 * @return The index of this Piece.
+	 */
+	public int getIndex() {
+		return index(type, isWhite);
+	}
 
 	/**
 	 * Returns a boolean indicating whether the Piece is white.
@@ -158,69 +307,41 @@ public class Piece implements Comparable<Piece> {
 	}
 	
 	/**
-	 * Sets whether this Piece was promoted or not.
+	 * Sets the position of this Piece in its Board's list of active pieces,
+	 * so that the Board can remove it without searching the list.
 	 * 
-	 * @param promoted A boolean indicating whether the Piece has been promoted or not.
+	 * @param listIndex The index of this Piece in the list.
 	 */
-	public void setPromoted(boolean promoted) {
-		this.promoted = promoted;
-	}
-	
-	/**
-	 * Returns a boolean indicating whether this Piece was promoted or not.
-	 * 
-	 * @return True If this Piece was a pawn that was promoted, false if not.
-	 */
-	public boolean wasPromoted() {
-		return promoted;
-	}
-
-	/**
-	 * Increments the number of times this Piece has moved. 
-	 */
-	public void incrementTimesMoved() {
-		timesMoved++;
-	}
-	
-	/**
-	 * Decrements the number of times this Piece has moved.
-	 * <br>pre: timesMoved > 0
-	 */
-	public void decrementTimesMoved() {
-		if(timesMoved < 1)
-			throw new IllegalStateException("timesMoved cannot be less than 0");
-		
-		timesMoved--;
+	void setListIndex(int listIndex) {
+		this.listIndex = listIndex;
 	}
 
 	/**
-	 * Returns the number of times this Piece has moved.
+	 * Returns the position of this Piece in its Board's list of active
+	 * pieces.
 	 * 
-	 * @return The number of moves this Piece has made.
+	 * @return The index of this Piece in the list.
 	 */
-	public int getTimesMoved() {
-		return timesMoved;
+	int getListIndex() {
+		return listIndex;
 	}
-
+	
 	/**
-	 * Sets whether this Piece has just moved or not. A Piece has just moved if
-	 * it moved and no other Pieces have moved since then. 
+	 * Sets whether this Piece was promoted or not.
 	 * 
-	 * @param hasJustMoved A boolean indicating whether the Piece just moved.
+	 * @param promoted A boolean indicating whether the Piece has been promoted or not.
 	 */
-	public void setHasJustMoved(boolean hasJustMoved) {
-		this.hasJustMoved = hasJustMoved;
+	public void setPromoted(boolean promoted) {
+		this.promoted = promoted;
 	}
-
+	
 	/**
-	 * Returns a boolean indicating whether this Piece has just moved or not. A
-	 * Piece has just moved if it moved and no other Pieces have moved since
-	 * then. 
+	 * Returns a boolean indicating whether this Piece was promoted or not.
 	 * 
-	 * @return True if this Piece has just moved, false otherwise
+	 * @return True If this Piece was a pawn that was promoted, false if not.
 	 */
-	public boolean hasJustMoved() {
-		return hasJustMoved;
+	public boolean wasPromoted() {
+		return promoted;
 	}
 
 	/**
@@ -243,9 +364,8 @@ public class Piece implements Comparable<Piece> {
 
 	public String toString() {
 		String result = type.name + " ";
-		result += "at (" + row + ", " + col + ") has moved " + timesMoved + " times, ";
-		result += isCaptured ? "is captured, " : "is active, ";
-		result += hasJustMoved ? "and has just moved." : "and has not just moved";
+		result += "at (" + row + ", " + col + ") ";
+		result += isCaptured ? "is captured." : "is active.";
 		return result;
 	}
 
@@ -291,62 +411,4 @@ public class Piece implements Comparable<Piece> {
 		
 		return 0;
 	}
-	
-	/**
-	 * Paints this piece in the specified graphics context. If the 
-	 * piece is captured, it is drawn in the appropriate HUD bar.
-	 * If the piece is active, it is drawn on the board. Returns the
-	 * new number of lost pieces drawn, including this piece.
-	 * 
-	 * @param graphic The graphic context to draw in. Must not be null.
-	 * @param lostPiecesDrawn The number of captured pieces already drawn in
-	 *                        this piece's HUD bar. Must be non-negative.
-	 * @return The new number of captured pieces drawn.
-	 */
-	public int paint(Graphics graphic, int lostPiecesDrawn) {
-		if (graphic == null) {
-			throw new IllegalArgumentException("The graphics object cannot be null.");
-		} else if (lostPiecesDrawn < 0) {
-			throw new IllegalArgumentException("The number of lost pieces already drawn cannot be negative.");
-		}
-		
-		if (isCaptured) {
-			paintCapturedPiece(graphic, lostPiecesDrawn);
-			return lostPiecesDrawn + 1;
-		} else {
-			paintActivePiece(graphic);
-			return lostPiecesDrawn;
-		}
-	}
-	
-	/**
-	 * Paints a captured piece in the specified graphics context. Uses
-	 * the lostPiecesDrawn argument to find the horizontal position in 
-	 * which to draw this piece.
-	 * 
-	 * @param graphic The graphics context to draw in. Must not be null.
-	 * @param lostPiecesDrawn The number of captured pieces already drawn in
-	 * 					      this piece's HUD bar. Must be non-negative.
-	 */
-	private void paintCapturedPiece(Graphics graphic, int lostPiecesDrawn) {
-		int yPos = isWhite ? GraphicsController.LOST_PIECE_Y_WHITE : GraphicsController.LOST_PIECE_Y_BLACK;
-		graphic.drawImage(GraphicsController.getCapturedImage(type, isWhite), 
-				          GraphicsController.LOST_PIECE_START_X + GraphicsController.LOST_PIECE_X_DIFFERENCE * lostPiecesDrawn, 
-				          yPos, 
-				          null);
-	}
-	
-	/**
-	 * Paints an active piece in the specified graphics context.
-	 * 
-	 * @param graphic The graphics context in which to draw this piece. Must not be null.
-	 */
-	private void paintActivePiece(Graphics graphic) {
-		BufferedImage image = GraphicsController.getActiveImage(type, isWhite);
-		int width = image.getWidth(null);
-		int height = image.getHeight(null);
-		int x = (col * Game.SPACE_SIDE_LENGTH) + (Game.SPACE_SIDE_LENGTH - width) / 2;
-		int y = (row * Game.SPACE_SIDE_LENGTH) + (Game.SPACE_SIDE_LENGTH - height) / 2;
-		graphic.drawImage(image, x, y + GraphicsController.HUD_BAR_HEIGHT, null);
-	}
 }
\ No newline at end of file
@@ -0,0 +1,600 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A negamax alpha-beta search over a Board. Moves are made and undone on
+ * the Board itself with makeMove(int) and undoMove(int), so the Board is
+ * left unchanged when a search finishes or is stopped. Scores are in
+ * centipawns from the point of view of the side to move, and a mate is
+ * scored as MATE_SCORE less the number of plies to it, so that nearer
+ * mates score higher.
+ * <br>
+ * Searches deepen one ply at a time (see iterativeSearch()), so that a
+ * search with a time limit always has the result of a completed
+ * iteration to fall back on. At the end of each line the search goes on
+ * with captures only (see quiescence()) until the position is quiet, so
+ * that it never stops in the middle of an exchange.
+ * <br>
+ * A Search is not thread safe, except for stop(), which may be called from
+ * any thread to end the current search early.
+ */
+public class Search {
+
+	// class constants
+	public static final int MAX_PLY = 64;
+	public static final int INFINITY = 32000;
+	public static final int MATE_SCORE = 30000;
+	public static final int DRAW_SCORE = 0;
+
+	// the number of nodes searched between checks of the node limit
+	private static final int NODES_PER_CHECK = 1024;
+	private static final int FIFTY_MOVE_RULE_PLIES = 100;
+	private static final int CENTIPAWNS_PER_PAWN = 100;
+	private static final int KILLERS_PER_PLY = 2;
+	// the history scores are halved when one passes this, so that they
+	// cannot overflow and newer cutoffs count for more
+	private static final int MAX_HISTORY = 1 << 20;
+	// a capture in quiescence search is not searched if it cannot bring the
+	// score up to alpha even with this much positional gain on top of the
+	// material it wins
+	private static final int DELTA_MARGIN = 200;
+
+	// instance variables
+	private final Board board;
+	private final TranspositionTable table;
+	private final Evaluator evaluator;
+
+	// one move picker per ply, so that searching a child does not
+	// overwrite the moves of its parent (see MovePicker)
+	private final MovePicker[] movePickers;
+	private final int[] rootMoves;
+
+	// The quiet moves that last caused a cutoff at each ply, and a score
+	// for each moved piece index and destination square that grows with
+	// the cutoffs the move has caused. Both order quiet moves.
+	private final int[][] killers;
+	private final int[][] history;
+
+	// The principal variation found below each ply, as a triangular
+	// table: pvTable[ply] holds the moves from ply to pvLength[ply].
+	private final int[][] pvTable;
+	private final int[] pvLength;
+
+	private volatile boolean stopped;
+	private long nodes;
+	private long nodeLimit;
+	private TimeManager timeManager;
+	private boolean quiescenceChecks;
+
+	// the result of the last completed iteration
+	private int bestMove;
+	private int bestScore;
+	private int completedDepth;
+	private final int[] principalVariation;
+	private int principalVariationLength;
+
+	/**
+	 * Creates a Search over the given Board with its own transposition table
+	 * of the default size. The Search keeps a reference to the Board and
+	 * searches whatever position it holds when search() is called.
+	 *
+	 * @param board The Board to search. May not be null.
+	 */
+	public Search(Board board) {
+		this(board, new TranspositionTable());
+	}
+
+	/**
+	 * Creates a Search over the given Board that stores its results in the
+	 * given transposition table, which may be shared with other Searches.
+	 *
+	 * @param board The Board to search. May not be null.
+	 * @param table The transposition table to use. May not be null.
+	 */
+	public Search(Board board, TranspositionTable table) {
+		if (board == null || table == null) {
+			throw new IllegalArgumentException("The board and transposition table may not be null.");
+		}
+		this.board = board;
+		this.table = table;
+		evaluator = new Evaluator();
+		killers = new int[MAX_PLY + 1][KILLERS_PER_PLY];
+		history = new int[Piece.NUM_INDICES][Bitboard.NUM_SPACES];
+		movePickers = new MovePicker[MAX_PLY + 1];
+		for (int ply = 0; ply <= MAX_PLY; ply++) {
+			movePickers[ply] = new MovePicker(board, history);
+		}
+		rootMoves = new int[Board.MAX_MOVES];
+		pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+		pvLength = new int[MAX_PLY + 1];
+		principalVariation = new int[MAX_PLY];
+		bestMove = PackedMove.NULL_MOVE;
+	}
+
+	/**
+	 * Searches the current position to the given depth and returns its score.
+	 * This is iterativeSearch() with no time limit. <br>
+	 * pre: 1 <= depth <= MAX_PLY
+	 *
+	 * @param depth The number of plies to search.
+	 * @return The score of the position for the side to move.
+	 */
+	public int search(int depth) {
+		return iterativeSearch(depth, null);
+	}
+
+	/**
+	 * Searches the current position one ply deeper at a time, up to the
+	 * given depth or until the time manager says to stop, and returns the
+	 * score of the last completed iteration. The best move, principal
+	 * variation and depth of that iteration are available afterwards from
+	 * getBestMove(), getPrincipalVariation() and getCompletedDepth(). An
+	 * iteration cut short by stop(), the node limit or the hard time limit
+	 * is thrown away, and isStopped() returns true. If not even the first
+	 * iteration finished, the best move is the first legal move. With a time
+	 * manager, a position with a single legal move is not searched beyond
+	 * the first iteration. <br>
+	 * pre: 1 <= maxDepth <= MAX_PLY
+	 *
+	 * @param maxDepth The deepest iteration to search.
+	 * @param timeManager The time limits for the search, or null to search
+	 *            to maxDepth.
+	 * @return The score of the position for the side to move.
+	 */
+	public int iterativeSearch(int maxDepth, TimeManager timeManager) {
+		if (maxDepth < 1 || maxDepth > MAX_PLY) {
+			throw new IllegalArgumentException("The depth must be between 1 and " + MAX_PLY + ": " + maxDepth);
+		}
+		stopped = false;
+		table.newSearch();
+		return iterate(maxDepth, timeManager, 1);
+	}
+
+	/**
+	 * Helper method for iterativeSearch() and ParallelSearch that searches
+	 * iterations from the given depth up to maxDepth. Unlike
+	 * iterativeSearch(), it neither clears a call to stop() made before it
+	 * starts nor starts a new search in the transposition table, so that a
+	 * helper thread can be started and stopped by another thread while the
+	 * table is shared. <br>
+	 * pre: 1 <= maxDepth <= MAX_PLY, firstDepth >= 1
+	 *
+	 * @param maxDepth The deepest iteration to search.
+	 * @param timeManager The time limits for the search, or null.
+	 * @param firstDepth The depth of the first iteration. If it is deeper
+	 *            than maxDepth, maxDepth is searched.
+	 * @return The score of the position for the side to move.
+	 */
+	int iterate(int maxDepth, TimeManager timeManager, int firstDepth) {
+		nodes = 0;
+		for (int[] plyKillers : killers) {
+			Arrays.fill(plyKillers, PackedMove.NULL_MOVE);
+		}
+		ageHistory();
+		this.timeManager = timeManager;
+		completedDepth = 0;
+		principalVariationLength = 0;
+		bestScore = 0;
+		int legalMoves = board.generateLegalMoves(board.isWhiteToMove(), rootMoves);
+		bestMove = legalMoves > 0 ? rootMoves[0] : PackedMove.NULL_MOVE;
+
+		for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth; depth++) {
+			int score = negamax(depth, 0, -INFINITY, INFINITY);
+			if (stopped) {
+				break;
+			}
+			completedDepth = depth;
+			bestScore = score;
+			principalVariationLength = pvLength[0];
+			System.arraycopy(pvTable[0], 0, principalVariation, 0, principalVariationLength);
+			if (principalVariationLength > 0) {
+				bestMove = principalVariation[0];
+			}
+
+			if (timeManager != null
+					&& (legalMoves <= 1 || timeManager.shouldStopAfterIteration(depth, bestMove, score))) {
+				break;
+			}
+		}
+		this.timeManager = null;
+		return bestScore;
+	}
+
+	/**
+	 * Helper method for search() that returns the negamax score of the
+	 * current position, searching the given number of plies further.
+	 *
+	 * @param depth The number of plies left to search.
+	 * @param ply The number of plies from the root.
+	 * @param alpha The score the side to move is already sure of.
+	 * @param beta The score the opponent is already sure of.
+	 * @return The score of the position for the side to move, or 0 if the
+	 *         search was stopped.
+	 */
+	private int negamax(int depth, int ply, int alpha, int beta) {
+		pvLength[ply] = ply;
+		if (++nodes % NODES_PER_CHECK == 0) {
+			checkLimits();
+		}
+		if (ply > 0 && isDraw()) {
+			return DRAW_SCORE;
+		}
+		if (ply == MAX_PLY) {
+			return evaluate();
+		}
+		if (depth == 0) {
+			return quiescence(ply, alpha, beta, true);
+		}
+
+		// a result from the table that is deep enough and whose bound
+		// settles the window ends the search here, except at the root,
+		// which must find a move
+		long key = board.getHash();
+		long entry = table.probe(key);
+		int hashMove = PackedMove.NULL_MOVE;
+		if (entry != 0) {
+			hashMove = TranspositionTable.getMove(entry);
+			if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+				int score = scoreFromTable(TranspositionTable.getScore(entry), ply);
+				int bound = TranspositionTable.getBound(entry);
+				if (bound == TranspositionTable.EXACT
+						|| (bound == TranspositionTable.LOWER && score >= beta)
+						|| (bound == TranspositionTable.UPPER && score <= alpha)) {
+					return score;
+				}
+			}
+		}
+
+		MovePicker movePicker = movePickers[ply];
+		movePicker.reset(hashMove, killers[ply]);
+		int originalAlpha = alpha;
+		int best = -INFINITY;
+		int bestMoveHere = PackedMove.NULL_MOVE;
+		int movesSearched = 0;
+		int move;
+		while ((move = movePicker.next()) != PackedMove.NULL_MOVE) {
+			movesSearched++;
+			board.makeMove(move);
+			int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+			board.undoMove(move);
+			if (stopped) {
+				return 0;
+			}
+
+			if (score > best) {
+				best = score;
+				if (score > alpha) {
+					alpha = score;
+					bestMoveHere = move;
+					updatePrincipalVariation(ply, move);
+					if (alpha >= beta) {
+						if (isQuiet(move)) {
+							updateQuietCutoff(move, ply, depth);
+						}
+						break;
+					}
+				}
+			}
+		}
+		if (movesSearched == 0) {
+			return board.isCheck(board.isWhiteToMove()) ? -MATE_SCORE + ply : DRAW_SCORE;
+		}
+
+		// a search that failed low has no best move to remember
+		int bound = best >= beta ? TranspositionTable.LOWER
+				: best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+		table.store(key, bestMoveHere, scoreToTable(best, ply), depth, bound);
+		return best;
+	}
+
+	/**
+	 * Helper method for negamax() that returns the score of the current
+	 * position once it is quiet. The side to move may stand pat on the
+	 * static evaluation, or search the captures and promotions that do not
+	 * lose material by static exchange evaluation, leaving out those that
+	 * could not raise the score to alpha (delta pruning). A side in check
+	 * cannot stand pat and searches every move, so that mates are found. If
+	 * quiescence checks are on, quiet moves that give check are searched
+	 * too at the first ply. The search stops at MAX_PLY.
+	 *
+	 * @param ply The number of plies from the root.
+	 * @param alpha The score the side to move is already sure of.
+	 * @param beta The score the opponent is already sure of.
+	 * @param firstPly Whether this is the first ply of quiescence search.
+	 * @return The score of the position for the side to move, or 0 if the
+	 *         search was stopped.
+	 */
+	private int quiescence(int ply, int alpha, int beta, boolean firstPly) {
+		pvLength[ply] = ply;
+		if (++nodes % NODES_PER_CHECK == 0) {
+			checkLimits();
+		}
+		if (ply == MAX_PLY) {
+			return evaluate();
+		}
+
+		boolean inCheck = board.isCheck(board.isWhiteToMove());
+		int standPat = -INFINITY;
+		MovePicker movePicker = movePickers[ply];
+		if (inCheck) {
+			movePicker.reset(PackedMove.NULL_MOVE, killers[ply]);
+		} else {
+			standPat = evaluate();
+			if (standPat >= beta) {
+				return standPat;
+			}
+			alpha = Math.max(alpha, standPat);
+			movePicker.resetQuiescence(firstPly && quiescenceChecks);
+		}
+
+		int best = standPat;
+		int movesSearched = 0;
+		int move;
+		while ((move = movePicker.next()) != PackedMove.NULL_MOVE) {
+			movesSearched++;
+			boolean quiet = isQuiet(move);
+			if (!inCheck && !quiet && standPat + materialGain(move) + DELTA_MARGIN <= alpha) {
+				continue;
+			}
+			board.makeMove(move);
+			// only the quiet moves that give check are searched
+			if (!inCheck && quiet && !board.isCheck(board.isWhiteToMove())) {
+				board.undoMove(move);
+				continue;
+			}
+			int score = -quiescence(ply + 1, -beta, -alpha, false);
+			board.undoMove(move);
+			if (stopped) {
+				return 0;
+			}
+
+			if (score > best) {
+				best = score;
+				if (score > alpha) {
+					alpha = score;
+					if (alpha >= beta) {
+						break;
+					}
+				}
+			}
+		}
+		if (inCheck && movesSearched == 0) {
+			return -MATE_SCORE + ply;
+		}
+		return best;
+	}
+
+	/**
+	 * Helper method for quiescence() that returns the material a capture or
+	 * promotion wins outright, in centipawns.
+	 */
+	private static int materialGain(int move) {
+		int gain = 0;
+		if (PackedMove.isCapture(move)) {
+			gain += Piece.typeOf(PackedMove.getCaptured(move)).getValue();
+		}
+		Piece.PieceType promotion = PackedMove.getPromotion(move);
+		if (promotion != null) {
+			gain += promotion.getValue() - Piece.PieceType.PAWN.getValue();
+		}
+		return gain * CENTIPAWNS_PER_PAWN;
+	}
+
+	/**
+	 * Helper method for negamax() that returns whether a move is quiet: not
+	 * a capture or a promotion.
+	 */
+	private static boolean isQuiet(int move) {
+		return !PackedMove.isCapture(move) && !PackedMove.isPromotion(move);
+	}
+
+	/**
+	 * Helper method for negamax() that remembers a quiet move that caused a
+	 * cutoff: it becomes the first killer move of the ply, and its history
+	 * score grows with the square of the depth, so that cutoffs high in the
+	 * tree count for more.
+	 */
+	private void updateQuietCutoff(int move, int ply, int depth) {
+		int[] plyKillers = killers[ply];
+		if (plyKillers[0] != move) {
+			System.arraycopy(plyKillers, 0, plyKillers, 1, KILLERS_PER_PLY - 1);
+			plyKillers[0] = move;
+		}
+		int[] pieceHistory = history[PackedMove.getPiece(move)];
+		int to = PackedMove.getTo(move);
+		pieceHistory[to] += depth * depth;
+		if (pieceHistory[to] > MAX_HISTORY) {
+			ageHistory();
+		}
+	}
+
+	/**
+	 * Helper method that halves every history score.
+	 */
+	private void ageHistory() {
+		for (int[] pieceHistory : history) {
+			for (int square = 0; square < pieceHistory.length; square++) {
+				pieceHistory[square] /= 2;
+			}
+		}
+	}
+
+	/**
+	 * Helper method for negamax() that converts a mate score, which counts
+	 * plies from the root, to count plies from the current node instead, so
+	 * that it stays correct wherever the position is found again.
+	 */
+	private static int scoreToTable(int score, int ply) {
+		if (score >= MATE_SCORE - MAX_PLY) {
+			return score + ply;
+		} else if (score <= -MATE_SCORE + MAX_PLY) {
+			return score - ply;
+		}
+		return score;
+	}
+
+	/**
+	 * Helper method for negamax() that undoes scoreToTable().
+	 */
+	private static int scoreFromTable(int score, int ply) {
+		if (score >= MATE_SCORE - MAX_PLY) {
+			return score - ply;
+		} else if (score <= -MATE_SCORE + MAX_PLY) {
+			return score + ply;
+		}
+		return score;
+	}
+
+	/**
+	 * Helper method for negamax() that stops the search once the node limit
+	 * or the hard time limit has been reached.
+	 */
+	private void checkLimits() {
+		if ((nodeLimit > 0 && nodes >= nodeLimit) || (timeManager != null && timeManager.isHardLimitReached())) {
+			stopped = true;
+		}
+	}
+
+	/**
+	 * Helper method for negamax() that makes the given move, followed by
+	 * the principal variation of the next ply, the principal variation of
+	 * this ply.
+	 */
+	private void updatePrincipalVariation(int ply, int move) {
+		pvTable[ply][ply] = move;
+		int length = pvLength[ply + 1];
+		System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, length - ply - 1);
+		pvLength[ply] = length;
+	}
+
+	/**
+	 * Helper method for negamax() that returns whether the position is a
+	 * draw regardless of the moves left to play. Within the search a single
+	 * repetition counts as a draw.
+	 */
+	private boolean isDraw() {
+		return board.getHalfmoveClock() >= FIFTY_MOVE_RULE_PLIES || board.isRepetition()
+				|| board.isInsufficientMaterial();
+	}
+
+	/**
+	 * Returns the static evaluation of the current position for the side to
+	 * move (see Evaluator).
+	 *
+	 * @return The score of the position for the side to move.
+	 */
+	private int evaluate() {
+		return evaluator.evaluate(board);
+	}
+
+	/**
+	 * Stops the current search as soon as possible. May be called from any
+	 * thread.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * Sets whether quiescence search also searches the quiet moves that give
+	 * check, at its first ply. This finds more mates and tactics at the end
+	 * of each line, at the cost of more nodes. Off by default.
+	 *
+	 * @param quiescenceChecks Whether to search checks in quiescence search.
+	 */
+	public void setQuiescenceChecks(boolean quiescenceChecks) {
+		this.quiescenceChecks = quiescenceChecks;
+	}
+
+	/**
+	 * Clears a call to stop(), so that the next call to iterate() searches.
+	 * Called by ParallelSearch before it hands a helper to another thread,
+	 * so that a stop() made while the helper is starting is not lost.
+	 */
+	void clearStop() {
+		stopped = false;
+	}
+
+	/**
+	 * Returns whether the last search was stopped before it reached its
+	 * depth or time limit.
+	 *
+	 * @return True if the search was stopped, false if it finished.
+	 */
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * Sets the number of nodes after which a search stops, or 0 for no limit.
+	 *
+	 * @param nodeLimit The node limit. nodeLimit >= 0
+	 */
+	public void setNodeLimit(long nodeLimit) {
+		if (nodeLimit < 0) {
+			throw new IllegalArgumentException("The node limit may not be negative: " + nodeLimit);
+		}
+		this.nodeLimit = nodeLimit;
+	}
+
+	/**
+	 * Returns the number of nodes visited by the last search.
+	 *
+	 * @return The number of nodes searched.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns the depth of the last iteration that the last search
+	 * completed.
+	 *
+	 * @return The completed depth, or 0 if no iteration finished.
+	 */
+	public int getCompletedDepth() {
+		return completedDepth;
+	}
+
+	/**
+	 * Returns the best move found by the last search.
+	 *
+	 * @return The packed best move, or PackedMove.NULL_MOVE if the side to
+	 *         move has no legal move.
+	 */
+	public int getBestMove() {
+		return bestMove;
+	}
+
+	/**
+	 * Returns the score of the best move found by the last search.
+	 *
+	 * @return The score for the side to move.
+	 */
+	public int getBestScore() {
+		return bestScore;
+	}
+
+	/**
+	 * Returns the principal variation of the last search: the best move and
+	 * the replies the search expects to it.
+	 *
+	 * @return A new array of packed moves, starting with the best move.
+	 */
+	public int[] getPrincipalVariation() {
+		int[] pv = new int[principalVariationLength];
+		System.arraycopy(principalVariation, 0, pv, 0, pv.length);
+		return pv;
+	}
+
+	/**
+	 * Returns whether the given score is a forced mate for either side.
+	 *
+	 * @param score A score returned by search().
+	 * @return True if the score is a mate score.
+	 */
+	public static boolean isMateScore(int score) {
+		return Math.abs(score) >= MATE_SCORE - MAX_PLY;
+	}
+}
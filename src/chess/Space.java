@@ -1,8 +1,4 @@
-import java.awt.BasicStroke;
-import java.awt.Color;
-import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.Stroke;
+package chess;
 
 public class Space {
 	
@@ -10,9 +6,6 @@ public class Space {
 	private Piece piece;
 	private int row;
 	private int col;
-	private boolean isSelected;
-	private boolean isPossibleMove;
-	private boolean isTakingMove;
 	
 	/**
 	 * Creates a Space object with row and column set to the specified values 
@@ -45,43 +38,6 @@ public class Space {
 		this.piece = piece;
 	}
 	
-	/**
-	 * Sets the space to selected or not selected.
-	 * 
-	 * @param selected A boolean indicating whether the space should
-	 *                 be rendered as selected.
-	 */
-	public void setSelected(boolean selected) {
-		isSelected = selected;
-	}
-	
-	/**
-	 * Sets the space to be displayed as a taking move or not.
-	 * 
-	 * @param isTakingMove A boolean indicating whether this space is a taking move.
-	 */
-	public void setTakingMove(boolean isTakingMove) {
-		this.isTakingMove = isTakingMove;
-	}
-	
-	/**
-	 * Sets whether this space should be rendered as a possible move.
-	 * 
-	 * @param isPossibleMove A boolean indicating that this space is a possible move.
-	 */
-	public void setPossibleMove(boolean isPossibleMove) {
-		this.isPossibleMove = isPossibleMove;
-	}
-	
-	/**
-	 * Returns whether this space is a possible move.
-	 * 
-	 * @return A boolean indicating whether this space is a possible move.
-	 */
-	public boolean isPossibleMove() {
-		return isPossibleMove;
-	}
-	
 	/**
 	 * Sets the piece that this space is holding.
 	 * 
@@ -160,37 +116,4 @@ public class Space {
 		}
 		return false;
 	}
-	
-	/**
-	 * Paints this space using the given graphics object. The space
-	 * is painted with a green outline if it is selected, a red outline
-	 * if it is a taking move and a blue outline if it is a possible move.
-	 * 
-	 * @param graphic The graphics context in which to paint the space.
-	 */
-	public void paint(Graphics graphic) {
-		Graphics2D g2 = (Graphics2D) graphic;
-		float thickness = 2;
-		Stroke oldStroke = g2.getStroke();
-		g2.setStroke(new BasicStroke(thickness));
-
-		if (isSelected) {
-			graphic.setColor(Color.GREEN);
-			graphic.drawRect(col * Game.SPACE_SIDE_LENGTH,
-					row * Game.SPACE_SIDE_LENGTH + GraphicsController.HUD_BAR_HEIGHT, Game.SPACE_SIDE_LENGTH,
-					Game.SPACE_SIDE_LENGTH);
-		} else if (isTakingMove) {
-			graphic.setColor(Color.RED);
-			graphic.drawRect(col * Game.SPACE_SIDE_LENGTH,
-					row * Game.SPACE_SIDE_LENGTH + GraphicsController.HUD_BAR_HEIGHT, Game.SPACE_SIDE_LENGTH,
-					Game.SPACE_SIDE_LENGTH);
-		} else if (isPossibleMove) {
-			graphic.setColor(Color.BLUE);
-			graphic.drawRect(col * Game.SPACE_SIDE_LENGTH,
-					row * Game.SPACE_SIDE_LENGTH + GraphicsController.HUD_BAR_HEIGHT, Game.SPACE_SIDE_LENGTH,
-					Game.SPACE_SIDE_LENGTH);
-		}
-
-		g2.setStroke(oldStroke);
-	}
 }
@@ -0,0 +1,239 @@
+package chess;
+
+/**
+ * Decides how long a search may think about one move, given the time left
+ * on the clock and the increment. There are two limits. The soft limit is
+ * checked between iterations of iterative deepening: once it has passed, no
+ * new iteration is started. The hard limit is checked during the search,
+ * which stops as soon as it passes and falls back on the last completed
+ * iteration. The soft limit is stretched while the best move keeps changing
+ * or the score drops, and shrunk once the best move has been stable for a
+ * few iterations. An iteration that would not finish before the hard limit,
+ * judged by how much longer each iteration has taken than the last, is not
+ * started at all, since its result would be thrown away. An iteration that
+ * is started is stopped once it has run past both the soft limit and the
+ * time it was expected to take, so that one slow iteration cannot spend
+ * much more of the clock than planned.
+ * <br>
+ * A TimeManager can also be stopped from another thread, which ends its
+ * search as if the hard limit had passed. Unlike Search.stop(), this cannot
+ * be undone by the search starting, so it also stops a search that has not
+ * started yet.
+ */
+public class TimeManager {
+
+	// class constants
+	// the number of moves the remaining time is assumed to be spread over
+	private static final int MOVES_TO_GO = 30;
+	// time kept back for the delay between the search stopping and the
+	// move reaching the clock, in milliseconds
+	private static final int MOVE_OVERHEAD = 50;
+	// the hard limit is at most this many times the soft limit, and at most
+	// this fraction of the remaining time, so one move can never take a
+	// large part of the clock
+	private static final int HARD_LIMIT_SCALE = 3;
+	private static final int MAX_REMAINING_FRACTION = 10;
+	private static final int STABLE_ITERATIONS_FOR_EASY_MOVE = 4;
+	private static final int SCORE_DROP = 50;
+	private static final double UNSTABLE_SCALE = 1.6;
+	private static final double SCORE_DROP_SCALE = 1.4;
+	private static final double EASY_MOVE_SCALE = 0.5;
+	// the least an iteration is assumed to take compared to the one before
+	private static final int MIN_ITERATION_GROWTH = 2;
+
+	// instance variables
+	private final long startTime;
+	private final long softLimit;
+	private final long hardLimit;
+	private int lastBestMove;
+	private int lastScore;
+	private int stableIterations;
+	private long lastIterationEnd;
+	private long lastIterationTime;
+	// the time by which the current iteration must finish
+	private long iterationDeadline;
+	private volatile boolean stopped;
+
+	/**
+	 * Creates a TimeManager for a move played with the given time left on
+	 * the clock and the given increment, and starts its clock.
+	 *
+	 * @param remainingTime The time left on the clock in milliseconds.
+	 * @param increment The time added to the clock after the move in
+	 *            milliseconds. increment >= 0
+	 */
+	public TimeManager(int remainingTime, int increment) {
+		this(budgetSoftLimit(remainingTime, increment), budgetHardLimit(remainingTime, increment), System.nanoTime());
+	}
+
+	/**
+	 * Creates a TimeManager that gives a move exactly the given time, with
+	 * no soft limit.
+	 *
+	 * @param moveTime The time for the move in milliseconds. moveTime > 0
+	 * @return The TimeManager, with its clock started.
+	 */
+	public static TimeManager forMoveTime(int moveTime) {
+		if (moveTime <= 0) {
+			throw new IllegalArgumentException("The move time must be greater than 0: " + moveTime);
+		}
+		return fixedLimits(moveTime, moveTime);
+	}
+
+	/**
+	 * Creates a TimeManager with the given soft and hard limits, which are
+	 * used as they are instead of being budgeted from a clock.
+	 *
+	 * @param softLimit The time after which no new iteration is started, in
+	 *            milliseconds. softLimit > 0
+	 * @param hardLimit The time after which the search is stopped, in
+	 *            milliseconds. hardLimit >= softLimit
+	 * @return The TimeManager, with its clock started.
+	 */
+	public static TimeManager fixedLimits(long softLimit, long hardLimit) {
+		if (softLimit <= 0 || hardLimit < softLimit) {
+			throw new IllegalArgumentException("The limits must satisfy 0 < soft limit <= hard limit: " + softLimit
+					+ ", " + hardLimit);
+		}
+		return new TimeManager(softLimit, hardLimit, System.nanoTime());
+	}
+
+	/**
+	 * Helper constructor that sets both limits and starts the clock at the
+	 * given time.
+	 *
+	 * @param softLimit The soft limit in milliseconds.
+	 * @param hardLimit The hard limit in milliseconds.
+	 * @param startTime The start of the move, from System.nanoTime().
+	 */
+	private TimeManager(long softLimit, long hardLimit, long startTime) {
+		this.softLimit = softLimit;
+		this.hardLimit = hardLimit;
+		this.startTime = startTime;
+		iterationDeadline = hardLimit;
+		lastBestMove = PackedMove.NULL_MOVE;
+	}
+
+	/**
+	 * Helper method for the constructor that returns the soft limit for a
+	 * move with the given clock: its share of the clock, but never past the
+	 * hard limit.
+	 */
+	private static long budgetSoftLimit(int remainingTime, int increment) {
+		return Math.max(1, Math.min(shareOfClock(remainingTime, increment), budgetHardLimit(remainingTime, increment)));
+	}
+
+	/**
+	 * Helper method for the constructor that returns the hard limit for a
+	 * move with the given clock: a few times the soft limit, but never more
+	 * than a small part of the usable time.
+	 */
+	private static long budgetHardLimit(int remainingTime, int increment) {
+		if (increment < 0) {
+			throw new IllegalArgumentException("The increment may not be negative: " + increment);
+		}
+		return Math.max(1, Math.min(shareOfClock(remainingTime, increment) * HARD_LIMIT_SCALE,
+				usableTime(remainingTime) / MAX_REMAINING_FRACTION));
+	}
+
+	/**
+	 * Helper method that returns a move's even share of the usable time on
+	 * the clock plus most of the increment.
+	 */
+	private static long shareOfClock(int remainingTime, int increment) {
+		return usableTime(remainingTime) / MOVES_TO_GO + increment * 3L / 4;
+	}
+
+	/**
+	 * Helper method that returns the time left on the clock less the move
+	 * overhead, and at least 1.
+	 */
+	private static long usableTime(int remainingTime) {
+		return Math.max(1, remainingTime - MOVE_OVERHEAD);
+	}
+
+	/**
+	 * Returns the time since this TimeManager was created.
+	 *
+	 * @return The elapsed time in milliseconds.
+	 */
+	public long getElapsedTime() {
+		return (System.nanoTime() - startTime) / 1000000;
+	}
+
+	/**
+	 * Makes the search using this TimeManager stop as soon as possible, or
+	 * stop at once when it starts. May be called from any thread.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * Returns whether the search must stop now.
+	 *
+	 * @return True if the hard limit or the deadline of the current
+	 *         iteration has passed, or stop() was called.
+	 */
+	public boolean isHardLimitReached() {
+		return stopped || getElapsedTime() >= iterationDeadline;
+	}
+
+	/**
+	 * Records the result of a completed iteration and returns whether the
+	 * search should stop instead of starting the next one.
+	 *
+	 * @param depth The depth of the completed iteration.
+	 * @param bestMove The best move of the iteration.
+	 * @param score The score of the iteration.
+	 * @return True if there is no time for another iteration.
+	 */
+	public boolean shouldStopAfterIteration(int depth, int bestMove, int score) {
+		double scale = 1.0;
+		if (depth > 1) {
+			if (bestMove != lastBestMove) {
+				stableIterations = 0;
+				scale *= UNSTABLE_SCALE;
+			} else if (++stableIterations >= STABLE_ITERATIONS_FOR_EASY_MOVE) {
+				scale *= EASY_MOVE_SCALE;
+			}
+			if (score < lastScore - SCORE_DROP) {
+				scale *= SCORE_DROP_SCALE;
+			}
+		}
+		lastBestMove = bestMove;
+		lastScore = score;
+
+		long now = getElapsedTime();
+		long iterationTime = now - lastIterationEnd;
+		long growth = MIN_ITERATION_GROWTH;
+		if (lastIterationTime > 0) {
+			growth = Math.max(growth, iterationTime / lastIterationTime);
+		}
+		lastIterationEnd = now;
+		lastIterationTime = iterationTime;
+		long scaledSoftLimit = Math.min(hardLimit, (long) (softLimit * scale));
+		long predictedTime = iterationTime * growth;
+		iterationDeadline = Math.min(hardLimit, Math.max(scaledSoftLimit, now + predictedTime));
+		return stopped || now >= scaledSoftLimit || now + predictedTime > hardLimit;
+	}
+
+	/**
+	 * Returns the time after which no new iteration is started, before it is
+	 * stretched or shrunk.
+	 *
+	 * @return The soft limit in milliseconds.
+	 */
+	public long getSoftLimit() {
+		return softLimit;
+	}
+
+	/**
+	 * Returns the time after which the search is stopped.
+	 *
+	 * @return The hard limit in milliseconds.
+	 */
+	public long getHardLimit() {
+		return hardLimit;
+	}
+}
@@ -1,8 +1,11 @@
+package chess;
 
 public class Timer {
 	
 	
 	//instance variables
+	// the methods are synchronized, since the game's clock thread counts
+	// the time down while the event thread adds the time back
 	private int blackTime; //milliseconds
 	private int whiteTime; //milliseconds
 	
@@ -22,7 +25,7 @@ public class Timer {
 	 * 
 	 * @param time The time in milliseconds. Must be greater than 0.
 	 */
-	public void setTime(int time) {
+	public synchronized void setTime(int time) {
 		if(time <= 0) {
 			throw new IllegalArgumentException("Time must be greater than 0: " + time);
 		}	
@@ -36,7 +39,7 @@ public class Timer {
 	 * @param decrement The amount to decrement the timer. Must be greater than 0.
 	 * @param isWhite A boolean indicating whether to decrement the white or black timer.
 	 */
-	public void decrementTime(int decrement, boolean isWhite) {
+	public synchronized void decrementTime(int decrement, boolean isWhite) {
 		if(decrement <= 0) {
 			throw new IllegalArgumentException("Timer decrement must be greater than 0: " + decrement);
 		}
@@ -54,7 +57,7 @@ public class Timer {
 	 * @param increment The amount to increment the timer. Must be non-negative.
 	 * @param isWhite
 	 */
-	public void incrementTime(int increment, boolean isWhite) {
+	public synchronized void incrementTime(int increment, boolean isWhite) {
 		if(increment < 0) {
 			throw new IllegalArgumentException("Timer increment must be greater than or equal to 0: " + increment);
 		}
@@ -72,7 +75,7 @@ public class Timer {
 	 * @param isWhite A boolean indicating whether to get white or black's remaining time.
 	 * @return The time remaining for the specified player.
 	 */
-	public int getRemainingTime(boolean isWhite) {		
+	public synchronized int getRemainingTime(boolean isWhite) {		
 		return isWhite ? whiteTime : blackTime;
 	}	
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table of search results, keyed by the Zobrist hash of
+ * the position (see Board.getHash()). The table is a single long array, so
+ * it holds no objects and can be shared by several searching threads
+ * without locks. Each entry is two longs: the data, and the key XORed with
+ * the data. A probe only accepts an entry whose two halves XOR back to the
+ * key, so an entry torn by two threads writing at once is simply a miss.
+ * <br>
+ * The data of an entry is packed into a long as follows:
+ *
+ * <pre>
+ *  bits  0-24  best move (see PackedMove), or PackedMove.NULL_MOVE
+ *  bits 25-40  score, as a signed 16 bit number
+ *  bits 41-47  depth searched
+ *  bits 48-49  bound: EXACT, LOWER or UPPER
+ *  bits 50-55  age: the search that stored the entry
+ * </pre>
+ *
+ * Entries are kept in buckets of two. A new entry replaces the entry for the
+ * same position if there is one, and otherwise the entry in its bucket that
+ * was searched least deeply, counting entries from earlier searches as
+ * shallower the older they are.
+ */
+public class TranspositionTable {
+
+	// class constants
+	public static final int DEFAULT_SIZE_MB = 16;
+	public static final int MAX_SIZE_MB = 8192;
+	public static final int EXACT = 1;
+	public static final int LOWER = 2;
+	public static final int UPPER = 3;
+
+	private static final int LONGS_PER_ENTRY = 2;
+	private static final int ENTRIES_PER_BUCKET = 2;
+	private static final int LONGS_PER_BUCKET = LONGS_PER_ENTRY * ENTRIES_PER_BUCKET;
+	private static final int BYTES_PER_BUCKET = LONGS_PER_BUCKET * Long.BYTES;
+	private static final int BYTES_PER_MB = 1024 * 1024;
+
+	private static final int SCORE_SHIFT = 25;
+	private static final int DEPTH_SHIFT = 41;
+	private static final int BOUND_SHIFT = 48;
+	private static final int AGE_SHIFT = 50;
+	private static final long MOVE_MASK = (1L << SCORE_SHIFT) - 1;
+	private static final long SCORE_MASK = 0xFFFF;
+	private static final long DEPTH_MASK = 0x7F;
+	private static final long BOUND_MASK = 0x3;
+	private static final int AGE_MASK = 0x3F;
+
+	// how many plies of depth one search of age counts for when replacing
+	private static final int AGE_WEIGHT = 8;
+	// a shallower result for the same position only replaces a deeper one
+	// if it is within this many plies, unless it is exact or newer
+	private static final int SAME_POSITION_DEPTH_MARGIN = 3;
+	private static final int MAX_DEPTH = (int) DEPTH_MASK;
+
+	// instance variables
+	private final long[] table;
+	private final int bucketMask;
+	private volatile int age;
+
+	/**
+	 * Creates an empty TranspositionTable of the default size.
+	 */
+	public TranspositionTable() {
+		this(DEFAULT_SIZE_MB);
+	}
+
+	/**
+	 * Creates an empty TranspositionTable that uses at most the given number
+	 * of megabytes. The number of buckets is rounded down to a power of two.
+	 *
+	 * @param sizeMb The size of the table in megabytes. 1 <= sizeMb <= MAX_SIZE_MB
+	 */
+	public TranspositionTable(int sizeMb) {
+		if (sizeMb < 1 || sizeMb > MAX_SIZE_MB) {
+			throw new IllegalArgumentException("The size must be between 1 and " + MAX_SIZE_MB + " MB: " + sizeMb);
+		}
+		long buckets = Long.highestOneBit((long) sizeMb * BYTES_PER_MB / BYTES_PER_BUCKET);
+		table = new long[(int) (buckets * LONGS_PER_BUCKET)];
+		bucketMask = table.length / LONGS_PER_BUCKET - 1;
+	}
+
+	/**
+	 * Looks up the entry for the given position.
+	 *
+	 * @param key The Zobrist hash of the position.
+	 * @return The packed data of the entry, or 0 if the table has no entry
+	 *         for the position.
+	 */
+	public long probe(long key) {
+		int bucket = bucketIndex(key);
+		for (int i = bucket; i < bucket + LONGS_PER_BUCKET; i += LONGS_PER_ENTRY) {
+			long data = table[i + 1];
+			if ((table[i] ^ data) == key && data != 0) {
+				return data;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Stores a search result for the given position, unless the table holds
+	 * a more useful result for it. If the move is PackedMove.NULL_MOVE, the
+	 * move already stored for the position is kept. <br>
+	 * pre: -Search.INFINITY <= score <= Search.INFINITY
+	 *
+	 * @param key The Zobrist hash of the position.
+	 * @param move The best move found, or PackedMove.NULL_MOVE.
+	 * @param score The score found, adjusted for the ply of mate scores.
+	 * @param depth The depth searched. depth >= 0
+	 * @param bound EXACT, LOWER if the score is a lower bound (the search
+	 *            failed high) or UPPER if it is an upper bound.
+	 */
+	public void store(long key, int move, int score, int depth, int bound) {
+		int bucket = bucketIndex(key);
+		int currentAge = age;
+		int replace = bucket;
+		int worstValue = Integer.MAX_VALUE;
+		for (int i = bucket; i < bucket + LONGS_PER_BUCKET; i += LONGS_PER_ENTRY) {
+			long data = table[i + 1];
+			if ((table[i] ^ data) == key && data != 0) {
+				// keep a deeper result for the same position from this search
+				if (bound != EXACT && getAge(data) == currentAge
+						&& depth + SAME_POSITION_DEPTH_MARGIN < getDepth(data)) {
+					return;
+				}
+				if (move == PackedMove.NULL_MOVE) {
+					move = getMove(data);
+				}
+				replace = i;
+				break;
+			}
+
+			// an empty entry is always the one to replace
+			int value = data == 0 ? Integer.MIN_VALUE
+					: getDepth(data) - AGE_WEIGHT * ((currentAge - getAge(data)) & AGE_MASK);
+			if (value < worstValue) {
+				worstValue = value;
+				replace = i;
+			}
+		}
+
+		long data = (move & MOVE_MASK)
+				| ((score & SCORE_MASK) << SCORE_SHIFT)
+				| ((long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT)
+				| ((long) bound << BOUND_SHIFT)
+				| ((long) currentAge << AGE_SHIFT);
+		table[replace] = key ^ data;
+		table[replace + 1] = data;
+	}
+
+	/**
+	 * Helper method that returns the index in the table of the first long of
+	 * the bucket for the given key.
+	 */
+	private int bucketIndex(long key) {
+		return ((int) key & bucketMask) * LONGS_PER_BUCKET;
+	}
+
+	/**
+	 * Starts a new search, so that the entries stored by earlier searches
+	 * are replaced first.
+	 */
+	public void newSearch() {
+		age = (age + 1) & AGE_MASK;
+	}
+
+	/**
+	 * Empties the table.
+	 */
+	public void clear() {
+		Arrays.fill(table, 0);
+		age = 0;
+	}
+
+	/**
+	 * Returns how full the table is with entries from the current search,
+	 * estimated from the first thousand buckets.
+	 *
+	 * @return The number of entries in a thousand that are in use.
+	 */
+	public int getPermillFull() {
+		int sampleBuckets = Math.min(1000, bucketMask + 1);
+		int used = 0;
+		int currentAge = age;
+		for (int i = 0; i < sampleBuckets * LONGS_PER_BUCKET; i += LONGS_PER_ENTRY) {
+			long data = table[i + 1];
+			if (data != 0 && getAge(data) == currentAge) {
+				used++;
+			}
+		}
+		return used * 1000 / (sampleBuckets * ENTRIES_PER_BUCKET);
+	}
+
+	/**
+	 * Returns the number of entries the table can hold.
+	 *
+	 * @return The capacity of the table.
+	 */
+	public int getCapacity() {
+		return table.length / LONGS_PER_ENTRY;
+	}
+
+	/**
+	 * Returns the best move of the packed entry data.
+	 *
+	 * @param data Data returned by probe().
+	 * @return The packed move, or PackedMove.NULL_MOVE.
+	 */
+	public static int getMove(long data) {
+		return (int) (data & MOVE_MASK);
+	}
+
+	/**
+	 * Returns the score of the packed entry data.
+	 *
+	 * @param data Data returned by probe().
+	 * @return The stored score.
+	 */
+	public static int getScore(long data) {
+		return (short) (data >>> SCORE_SHIFT);
+	}
+
+	/**
+	 * Returns the depth of the packed entry data.
+	 *
+	 * @param data Data returned by probe().
+	 * @return The depth that was searched.
+	 */
+	public static int getDepth(long data) {
+		return (int) ((data >>> DEPTH_SHIFT) & DEPTH_MASK);
+	}
+
+	/**
+	 * Returns the bound of the packed entry data.
+	 *
+	 * @param data Data returned by probe().
+	 * @return EXACT, LOWER or UPPER.
+	 */
+	public static int getBound(long data) {
+		return (int) ((data >>> BOUND_SHIFT) & BOUND_MASK);
+	}
+
+	/**
+	 * Helper method that returns the age of the packed entry data.
+	 */
+	private static int getAge(long data) {
+		return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+	}
+}
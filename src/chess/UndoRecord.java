@@ -0,0 +1,25 @@
+package chess;
+
+/**
+ * The state a move destroys and that cannot be worked out again from the
+ * move itself: the piece it captured, and the castling rights, en passant
+ * square, halfmove clock and hash from before it was made. Board keeps one
+ * record per ply on a stack and reuses them, so making and undoing a move
+ * does not allocate.
+ */
+final class UndoRecord {
+
+	Piece capturedPiece;
+	int castlingRights;
+	int enPassantSquare;
+	int halfmoveClock;
+	long hash;
+
+	/**
+	 * Forgets the captured piece so that the record does not keep it alive
+	 * after the move has been undone.
+	 */
+	void clear() {
+		capturedPiece = null;
+	}
+}
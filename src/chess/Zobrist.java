@@ -0,0 +1,86 @@
+package chess;
+
+import java.util.Random;
+
+/**
+ * A utility class holding the random keys used to compute the Zobrist hash
+ * of a position. The hash is the XOR of one key for each piece on its
+ * square, a key if black is to move, a key for the castling rights and a
+ * key for the file of the en passant square, if any. Because XOR is its own
+ * inverse, Board keeps the hash up to date by XORing keys in and out as
+ * pieces move rather than recomputing it.
+ */
+public final class Zobrist {
+
+	// class constants
+	public static final int NUM_CASTLING_RIGHTS = 16;
+	public static final int NUM_FILES = 8;
+
+	// a fixed seed, so that hashes are the same from run to run
+	private static final long SEED = 0x5DEECE66DL;
+
+	private static final long[][] PIECE_KEYS = new long[Piece.NUM_INDICES][Bitboard.NUM_SPACES];
+	private static final long[] CASTLING_KEYS = new long[NUM_CASTLING_RIGHTS];
+	private static final long[] EN_PASSANT_KEYS = new long[NUM_FILES];
+	private static final long BLACK_TO_MOVE_KEY;
+
+	static {
+		Random random = new Random(SEED);
+		for (int index = 0; index < Piece.NUM_INDICES; index++) {
+			for (int square = 0; square < Bitboard.NUM_SPACES; square++) {
+				PIECE_KEYS[index][square] = random.nextLong();
+			}
+		}
+		for (int rights = 0; rights < NUM_CASTLING_RIGHTS; rights++) {
+			CASTLING_KEYS[rights] = random.nextLong();
+		}
+		for (int file = 0; file < NUM_FILES; file++) {
+			EN_PASSANT_KEYS[file] = random.nextLong();
+		}
+		BLACK_TO_MOVE_KEY = random.nextLong();
+	}
+
+	private Zobrist() {
+		// Not instantiable
+	}
+
+	/**
+	 * Returns the key for the given piece standing on the given square.
+	 *
+	 * @param index The index of the piece (see Piece.index).
+	 * @param square The square the piece is on. 0 <= square < Bitboard.NUM_SPACES
+	 * @return The key for the piece on the square.
+	 */
+	public static long pieceKey(int index, int square) {
+		return PIECE_KEYS[index][square];
+	}
+
+	/**
+	 * Returns the key for the given set of castling rights.
+	 *
+	 * @param rights The castling rights, a combination of the Board.CASTLE_ flags.
+	 * @return The key for the castling rights.
+	 */
+	public static long castlingKey(int rights) {
+		return CASTLING_KEYS[rights];
+	}
+
+	/**
+	 * Returns the key for an en passant square on the given file.
+	 *
+	 * @param file The column of the en passant square. 0 <= file < NUM_FILES
+	 * @return The key for the en passant file.
+	 */
+	public static long enPassantKey(int file) {
+		return EN_PASSANT_KEYS[file];
+	}
+
+	/**
+	 * Returns the key that is included when black is to move.
+	 *
+	 * @return The side to move key.
+	 */
+	public static long blackToMoveKey() {
+		return BLACK_TO_MOVE_KEY;
+	}
+}
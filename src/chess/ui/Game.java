@@ -1,6 +1,12 @@
+package chess.ui;
+
 import java.awt.Dimension;
 import java.awt.EventQueue;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 import javax.swing.*;
@@ -11,6 +17,15 @@ import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 
+import chess.AI;
+import chess.Board;
+import chess.GameResult;
+import chess.Move;
+import chess.Piece;
+import chess.Space;
+import chess.TimeManager;
+import chess.Timer;
+
 public class Game implements MouseListener, Runnable, ActionListener {
 
 	// constants
@@ -25,6 +40,7 @@ public class Game implements MouseListener, Runnable, ActionListener {
 	public static final String NEW_GAME_OPTION = "New Game";
 	public static final String SINGLE_PLAYER_OPTION = "Single Player";
 	public static final String TWO_PLAYER_OPTION = "Two Player";
+	public static final String RESIGN_OPTION = "Resign";
 	public static final String QUIT_OPTION = "Quit";
 	public static final String FIVE_MIN_OPTION = "5 min";
 	public static final String TEN_MIN_OPTION = "10 min";
@@ -43,11 +59,18 @@ public class Game implements MouseListener, Runnable, ActionListener {
 	private Timer timer;
 	private Space selectedSpace;
 	private ArrayList<Move> possibleMoves;
-	private Move enPassantMove;
-	private boolean isWhiteTurn;
-	private boolean isGamePlaying;
-	private boolean isGameOver;
+	// read by the clock thread as well as the event thread
+	private volatile boolean isWhiteTurn;
+	private volatile boolean isGamePlaying;
+	private volatile boolean isGameOver;
 	private Thread thread;
+	// the AI thinks on its own thread, so that the window stays responsive;
+	// aiTurn is the AI's current move, or null when it is not thinking
+	private ExecutorService aiExecutor;
+	private Future<?> aiTurn;
+	// the time limits of the AI's current move, which also cancel it: a
+	// stopped TimeManager stops the search even before it has started
+	private TimeManager aiTimeManager;
 	//private boolean isRunning;
 	private int threadDelay = 17;
 	private int startTime;
@@ -79,6 +102,14 @@ public class Game implements MouseListener, Runnable, ActionListener {
 		isSinglePlayer = true;
 		graphicsController = new GraphicsController(null);
 		timer = new Timer(startTime);
+		aiExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread aiThread = new Thread(runnable, "ai");
+				aiThread.setDaemon(true);
+				return aiThread;
+			}
+		});
 		newGame();
 	}
 
@@ -86,6 +117,11 @@ public class Game implements MouseListener, Runnable, ActionListener {
 	 * Resets the game state variables and objects.
 	 */
 	public void newGame() {
+		cancelAiTurn();
+		if (ai != null) {
+			retireAi(ai);
+			ai = null;
+		}
 		isWhiteTurn = true;
 		isGamePlaying = false;
 		isGameOver = false;
@@ -107,17 +143,27 @@ public class Game implements MouseListener, Runnable, ActionListener {
 
 	public void run() {
 		try {
+			// charge the time that actually passed, which is more than the
+			// delay when the machine is busy, such as while the AI thinks
+			long lastTick = System.nanoTime();
 			while (true) {
 				Thread.sleep(threadDelay);
+				long now = System.nanoTime();
+				int elapsed = (int) TimeUnit.NANOSECONDS.toMillis(now - lastTick);
+				lastTick += TimeUnit.MILLISECONDS.toNanos(elapsed);
 
-				if (isGamePlaying) {
-					timer.decrementTime(threadDelay, isWhiteTurn);
+				if (isGamePlaying && elapsed > 0) {
+					timer.decrementTime(elapsed, isWhiteTurn);
 
 					if (timer.getRemainingTime(isWhiteTurn) <= 0) {
-						if (isWhiteTurn)
-							gameOver("Black wins by timeout!");
-						else
-							gameOver("White wins by timeout!");
+						isGamePlaying = false;
+						final String message = isWhiteTurn ? "Black wins by timeout!" : "White wins by timeout!";
+						EventQueue.invokeLater(new Runnable() {
+							@Override
+							public void run() {
+								gameOver(message);
+							}
+						});
 					}
 				}
 
@@ -141,6 +187,7 @@ public class Game implements MouseListener, Runnable, ActionListener {
 		if(message == null)
 			throw new IllegalArgumentException("message may not be null.");
 		
+		cancelAiTurn();
 		isGameOver = true;
 		isGamePlaying = false;
 		Object[] options = { NEW_GAME_OPTION, "Close" };
@@ -158,19 +205,139 @@ public class Game implements MouseListener, Runnable, ActionListener {
 	private void switchTurns() {
 		timer.incrementTime(timeBack, isWhiteTurn);
 		isWhiteTurn = !isWhiteTurn;
-		if (board.isCheckMate(isWhiteTurn)) {
+		GameResult result = board.getGameResult();
+		if (result == GameResult.CHECKMATE) {
 			if (isWhiteTurn) {
 				gameOver("Black wins by checkmate!");
 			} else {
 				gameOver("White wins by checkmate!");
 			}
+		} else if (result.isDraw()) {
+			gameOver(result.getDescription() + "!");
 		} else if (isSinglePlayer && isWhiteTurn == ai.isWhite()) {
-			//System.out.println("AI choice for next move: ");
-			//Move move = ai.getNextMove();
-			//System.out.println(move);
+			startAiTurn();
+		}
+	}
+
+	/**
+	 * Starts the AI thinking about its move on the AI thread, with the time
+	 * left on its clock. The move is made on the event thread once it is
+	 * found, unless the turn has been cancelled by then. If the AI fails, the
+	 * failure is reported on the event thread instead.
+	 * <br>pre: it is the AI's turn and the AI is not already thinking
+	 */
+	private void startAiTurn() {
+		final AI thinkingAi = ai;
+		final TimeManager timeManager = new TimeManager(timer.getRemainingTime(ai.isWhite()), timeBack);
+		aiTimeManager = timeManager;
+		aiTurn = aiExecutor.submit(new Runnable() {
+			@Override
+			public void run() {
+				final Move move;
+				try {
+					move = thinkingAi.getNextMove(timeManager);
+				} catch (final Throwable failure) {
+					// the Future would keep the failure to itself, and the
+					// turn would never end
+					EventQueue.invokeLater(new Runnable() {
+						@Override
+						public void run() {
+							failAiTurn(thinkingAi, failure);
+						}
+					});
+					return;
+				}
+				EventQueue.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						finishAiTurn(thinkingAi, move);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Ends the game after the AI failed to find a move, if its turn is still
+	 * going, so that the player is not left waiting for a move that will
+	 * never come.
+	 * 
+	 * @param thinkingAi The AI that failed.
+	 * @param failure What went wrong. May not be null.
+	 */
+	private void failAiTurn(AI thinkingAi, Throwable failure) {
+		failure.printStackTrace();
+		if (thinkingAi != ai || aiTurn == null || isGameOver) {
+			return;
+		}
+		aiTurn = null;
+		aiTimeManager = null;
+		gameOver("The AI could not find a move: " + failure);
+	}
+
+	/**
+	 * Makes the move the AI found, if its turn is still going: the game may
+	 * have ended or been replaced by a new game while it was thinking.
+	 * 
+	 * @param thinkingAi The AI that found the move.
+	 * @param move The move it found, or null if it had none.
+	 */
+	private void finishAiTurn(AI thinkingAi, Move move) {
+		if (thinkingAi != ai || aiTurn == null || isGameOver) {
+			return;
+		}
+		aiTurn = null;
+		aiTimeManager = null;
+		if (move != null) {
+			board.makeOfficialMove(move);
+			deselectAllSpaces();
+			switchTurns();
+			graphicsController.renderPieces();
 		}
 	}
 
+	/**
+	 * Stops the AI if it is thinking, or keeps it from starting if its turn
+	 * is still waiting for the AI thread. Whatever move it finds is thrown
+	 * away.
+	 */
+	private void cancelAiTurn() {
+		if (aiTurn != null) {
+			aiTimeManager.stop();
+			aiTurn.cancel(false);
+			aiTurn = null;
+			aiTimeManager = null;
+		}
+	}
+
+	/**
+	 * Shuts down an AI that is no longer used, once it has stopped thinking.
+	 * The AI thread runs one task at a time, so the shutdown waits for any
+	 * search of the AI that is still running.
+	 * 
+	 * @param oldAi The AI to shut down. May not be null.
+	 */
+	private void retireAi(final AI oldAi) {
+		aiExecutor.submit(new Runnable() {
+			@Override
+			public void run() {
+				oldAi.shutdown();
+			}
+		});
+	}
+
+	/**
+	 * Ends the game with a win for the other side. In single player, the
+	 * player resigns; in two player, the side to move does.
+	 */
+	private void resign() {
+		if (isGameOver) {
+			return;
+		}
+		boolean whiteResigns = isSinglePlayer && ai != null ? !ai.isWhite() : isWhiteTurn;
+		gameOver(whiteResigns ? "Black wins by resignation!" : "White wins by resignation!");
+	}
+
 	/**
 	 * Five cases for a user clicking the mouse: <br>
 	 * 1: They click a possible move <br>
@@ -196,7 +363,8 @@ public class Game implements MouseListener, Runnable, ActionListener {
 	public void mouseClicked(MouseEvent event) {
 		System.out.println("Mouse clicked: (" + event.getX() + ", " + event.getY() + ")");
 
-		if (!isGameOver) {
+		// the board belongs to the AI while it is thinking
+		if (!isGameOver && aiTurn == null) {
 			int row = getRowOnBoard(event.getY());
 			int col = getColOnBoard(event.getX());
 			System.out.println("Mouse clicked: (" + row + ", " + col + ")");
@@ -218,6 +386,8 @@ public class Game implements MouseListener, Runnable, ActionListener {
 				}
 
 				if (selectedMove != null) {
+					if (selectedMove.getPromotion() != null)
+						selectedMove = selectedMove.withPromotion(choosePawnPromotion());
 					board.makeOfficialMove(selectedMove);
 					deselectAllSpaces();
 					switchTurns();
@@ -233,7 +403,6 @@ public class Game implements MouseListener, Runnable, ActionListener {
 
 					deselectAllSpaces();
 					selectedSpace = clickedSpace;
-					selectedSpace.setSelected(true);
 					highlightPossibleMoves(piece);
 				} else {
 					// CASE 3 and CASE 4 covered here
@@ -248,7 +417,7 @@ public class Game implements MouseListener, Runnable, ActionListener {
 
 	/**
 	 * Finds the possible moves for a piece and highlights
-	 * them for the next rendering.
+	 * them, along with the selected space, for the next rendering.
 	 * @param piece The piece to find moves for. Cannot be null.
 	 * <br>pre: piece != null
 	 */
@@ -258,14 +427,7 @@ public class Game implements MouseListener, Runnable, ActionListener {
 		}
 
 		possibleMoves = board.findLegalMoves(piece, true);
-
-		for (int i = 0; i < possibleMoves.size(); i++) {
-			Move move = possibleMoves.get(i);
-			if (move.isCapture())
-				move.getDestination().setTakingMove(true);
-			else
-				move.getDestination().setPossibleMove(true);
-		}
+		graphicsController.setHighlights(selectedSpace, possibleMoves);
 	}
 
 	/**
@@ -273,24 +435,31 @@ public class Game implements MouseListener, Runnable, ActionListener {
 	 * <br>pre: none
 	 */
 	private void deselectAllSpaces() {
-		if (selectedSpace != null) {
-			selectedSpace.setSelected(false);
-			selectedSpace = null;
-		}
+		selectedSpace = null;
+		possibleMoves = null;
+		graphicsController.setHighlights(null, null);
+	}
 
-		if (possibleMoves != null) {
-			for (int i = 0; i < possibleMoves.size(); i++) {
-				possibleMoves.get(i).getDestination().setPossibleMove(false);
-				possibleMoves.get(i).getDestination().setTakingMove(false);
-				possibleMoves.remove(i);
-				i--;
-			}
-		}
+	/**
+	 * Helper method that displays a JOptionPane that allows the user to
+	 * select their promotion choice when a pawn reaches the last row.
+	 * 
+	 * @return The type the user chose, or a queen if they cancelled.
+	 */
+	private Piece.PieceType choosePawnPromotion() {
 
-		if (enPassantMove != null) {
-			enPassantMove.getDestination().setTakingMove(false);
-			enPassantMove = null;
-		}
+		// display the JOptionPane
+		Object[] buttons = { "Knight", "Bishop", "Rook", "Queen" };
+		int selectedValue = JOptionPane.showOptionDialog(null, "Which piece would you like?", "Promote pawn",
+				JOptionPane.DEFAULT_OPTION, JOptionPane.WARNING_MESSAGE, null, buttons, buttons[3]);
+
+		// the user actually made a choice
+		if (selectedValue > -1)
+			return Piece.PieceType.valueOf(((String)buttons[selectedValue]).toUpperCase());
+
+		// otherwise, they cancelled, so
+		// just make the default value a queen
+		return Piece.PieceType.QUEEN;
 	}
 
 	/**
@@ -328,6 +497,8 @@ public class Game implements MouseListener, Runnable, ActionListener {
 		
 		if (event.getActionCommand().equals(NEW_GAME_OPTION)) {
 			newGame();
+		} else if (event.getActionCommand().equals(RESIGN_OPTION)) {
+			resign();
 		} else if (event.getActionCommand().equals(SINGLE_PLAYER_OPTION)) {
 			isSinglePlayer = true;
 		} else if (event.getActionCommand().equals(TWO_PLAYER_OPTION)) {
@@ -421,6 +592,8 @@ public class Game implements MouseListener, Runnable, ActionListener {
 		JMenu gameMenu = new JMenu("Game");
 		JMenuItem newGameItem = new JMenuItem(NEW_GAME_OPTION);
 		newGameItem.addActionListener(this);
+		JMenuItem resignItem = new JMenuItem(RESIGN_OPTION);
+		resignItem.addActionListener(this);
 
 		JMenu gameModeMenu = new JMenu("Mode");
 		JMenuItem singlePlayerItem = new JMenuItem(SINGLE_PLAYER_OPTION);
@@ -434,6 +607,7 @@ public class Game implements MouseListener, Runnable, ActionListener {
 		gameModeMenu.add(singlePlayerItem);
 		gameModeMenu.add(twoPlayerItem);
 		gameMenu.add(newGameItem);
+		gameMenu.add(resignItem);
 		gameMenu.add(gameModeMenu);
 		gameMenu.add(quitItem);
 		menuBar.add(gameMenu);
@@ -1,3 +1,5 @@
+package chess.ui;
+
 import java.awt.*;
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -6,6 +8,12 @@ import java.util.concurrent.TimeUnit;
 import java.awt.Graphics;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.ArrayList;
+
+import chess.Board;
+import chess.Move;
+import chess.Piece;
+import chess.Space;
 
 @SuppressWarnings("serial")
 public class GraphicsController extends JPanel {
@@ -22,37 +30,37 @@ public class GraphicsController extends JPanel {
 	public static final int LOST_PIECE_Y_BLACK = 535;
 
 	// Image file names
-	private static final String ACTIVE_PAWN_WHITE_FILENAME = "images/pawn_white.png";
-	private static final String ACTIVE_KNIGHT_WHITE_FILENAME = "images/knight_white.png";
-	private static final String ACTIVE_BISHOP_WHITE_FILENAME = "images/bishop_white.png";
-	private static final String ACTIVE_ROOK_WHITE_FILENAME = "images/rook_white.png";
-	private static final String ACTIVE_QUEEN_WHITE_FILENAME = "images/queen_white.png";
-	private static final String ACTIVE_KING_WHITE_FILENAME = "images/king_white.png";
+	private static final String ACTIVE_PAWN_WHITE_FILENAME = "/images/pawn_white.png";
+	private static final String ACTIVE_KNIGHT_WHITE_FILENAME = "/images/knight_white.png";
+	private static final String ACTIVE_BISHOP_WHITE_FILENAME = "/images/bishop_white.png";
+	private static final String ACTIVE_ROOK_WHITE_FILENAME = "/images/rook_white.png";
+	private static final String ACTIVE_QUEEN_WHITE_FILENAME = "/images/queen_white.png";
+	private static final String ACTIVE_KING_WHITE_FILENAME = "/images/king_white.png";
 	private static final String[] ACTIVE_WHITE_FILENAMES = new String[] { ACTIVE_PAWN_WHITE_FILENAME,
 			ACTIVE_KNIGHT_WHITE_FILENAME, ACTIVE_BISHOP_WHITE_FILENAME, ACTIVE_ROOK_WHITE_FILENAME,
 			ACTIVE_QUEEN_WHITE_FILENAME, ACTIVE_KING_WHITE_FILENAME };
-	private static final String ACTIVE_PAWN_BLACK_FILENAME = "images/pawn_black.png";
-	private static final String ACTIVE_KNIGHT_BLACK_FILENAME = "images/knight_black.png";
-	private static final String ACTIVE_BISHOP_BLACK_FILENAME = "images/bishop_black.png";
-	private static final String ACTIVE_ROOK_BLACK_FILENAME = "images/rook_black.png";
-	private static final String ACTIVE_QUEEN_BLACK_FILENAME = "images/queen_black.png";
-	private static final String ACTIVE_KING_BLACK_FILENAME = "images/king_black.png";
+	private static final String ACTIVE_PAWN_BLACK_FILENAME = "/images/pawn_black.png";
+	private static final String ACTIVE_KNIGHT_BLACK_FILENAME = "/images/knight_black.png";
+	private static final String ACTIVE_BISHOP_BLACK_FILENAME = "/images/bishop_black.png";
+	private static final String ACTIVE_ROOK_BLACK_FILENAME = "/images/rook_black.png";
+	private static final String ACTIVE_QUEEN_BLACK_FILENAME = "/images/queen_black.png";
+	private static final String ACTIVE_KING_BLACK_FILENAME = "/images/king_black.png";
 	private static final String[] ACTIVE_BLACK_FILENAMES = new String[] { ACTIVE_PAWN_BLACK_FILENAME,
 			ACTIVE_KNIGHT_BLACK_FILENAME, ACTIVE_BISHOP_BLACK_FILENAME, ACTIVE_ROOK_BLACK_FILENAME,
 			ACTIVE_QUEEN_BLACK_FILENAME, ACTIVE_KING_BLACK_FILENAME };
-	private static final String CAPTURED_PAWN_WHITE_FILENAME = "images/pawn_white_lost.png";
-	private static final String CAPTURED_KNIGHT_WHITE_FILENAME = "images/knight_white_lost.png";
-	private static final String CAPTURED_BISHOP_WHITE_FILENAME = "images/bishop_white_lost.png";
-	private static final String CAPTURED_ROOK_WHITE_FILENAME = "images/rook_white_lost.png";
-	private static final String CAPTURED_QUEEN_WHITE_FILENAME = "images/queen_white_lost.png";
+	private static final String CAPTURED_PAWN_WHITE_FILENAME = "/images/pawn_white_lost.png";
+	private static final String CAPTURED_KNIGHT_WHITE_FILENAME = "/images/knight_white_lost.png";
+	private static final String CAPTURED_BISHOP_WHITE_FILENAME = "/images/bishop_white_lost.png";
+	private static final String CAPTURED_ROOK_WHITE_FILENAME = "/images/rook_white_lost.png";
+	private static final String CAPTURED_QUEEN_WHITE_FILENAME = "/images/queen_white_lost.png";
 	private static final String[] CAPTURED_WHITE_FILENAMES = new String[] { CAPTURED_PAWN_WHITE_FILENAME,
 			CAPTURED_KNIGHT_WHITE_FILENAME, CAPTURED_BISHOP_WHITE_FILENAME, CAPTURED_ROOK_WHITE_FILENAME,
 			CAPTURED_QUEEN_WHITE_FILENAME };
-	private static final String CAPTURED_PAWN_BLACK_FILENAME = "images/pawn_black_lost.png";
-	private static final String CAPTURED_KNIGHT_BLACK_FILENAME = "images/knight_black_lost.png";
-	private static final String CAPTURED_BISHOP_BLACK_FILENAME = "images/bishop_black_lost.png";
-	private static final String CAPTURED_ROOK_BLACK_FILENAME = "images/rook_black_lost.png";
-	private static final String CAPTURED_QUEEN_BLACK_FILENAME = "images/queen_black_lost.png";
+	private static final String CAPTURED_PAWN_BLACK_FILENAME = "/images/pawn_black_lost.png";
+	private static final String CAPTURED_KNIGHT_BLACK_FILENAME = "/images/knight_black_lost.png";
+	private static final String CAPTURED_BISHOP_BLACK_FILENAME = "/images/bishop_black_lost.png";
+	private static final String CAPTURED_ROOK_BLACK_FILENAME = "/images/rook_black_lost.png";
+	private static final String CAPTURED_QUEEN_BLACK_FILENAME = "/images/queen_black_lost.png";
 	private static final String[] CAPTURED_BLACK_FILENAMES = new String[] { CAPTURED_PAWN_BLACK_FILENAME,
 			CAPTURED_KNIGHT_BLACK_FILENAME, CAPTURED_BISHOP_BLACK_FILENAME, CAPTURED_ROOK_BLACK_FILENAME,
 			CAPTURED_QUEEN_BLACK_FILENAME };
@@ -69,6 +77,8 @@ public class GraphicsController extends JPanel {
 	private Board board;
 	private String blackTimer;
 	private String whiteTimer;
+	private Space selectedSpace;
+	private ArrayList<Move> possibleMoves;
 	
 	
 	/**
@@ -97,7 +107,7 @@ public class GraphicsController extends JPanel {
 			}
 			activeImagesWhite.put(types[types.length - 1], ImageIO.read(object.getClass().getResource(ACTIVE_WHITE_FILENAMES[types.length - 1])));
 			activeImagesBlack.put(types[types.length - 1], ImageIO.read(object.getClass().getResource(ACTIVE_BLACK_FILENAMES[types.length - 1])));
-			boardImage = ImageIO.read(object.getClass().getResource("images/board.png"));
+			boardImage = ImageIO.read(object.getClass().getResource("/images/board.png"));
 			hasLoadedImages = true;
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -153,6 +163,17 @@ public class GraphicsController extends JPanel {
 		this.board = board;
 	}
 
+	/**
+	 * Sets the selected space and the moves to highlight on the board.
+	 * 
+	 * @param selectedSpace The space to outline as selected. Can be null.
+	 * @param possibleMoves The moves whose destinations are outlined. Can be null.
+	 */
+	public void setHighlights(Space selectedSpace, ArrayList<Move> possibleMoves) {
+		this.selectedSpace = selectedSpace;
+		this.possibleMoves = possibleMoves;
+	}
+
 	/**
 	 * Repaints the board, without calculating new timer values.
 	 */
@@ -199,7 +220,107 @@ public class GraphicsController extends JPanel {
 		super.paintComponent(graphic);
 		graphic.drawImage(boardImage, 0, HUD_BAR_HEIGHT, null);
 		paintHUDBars(graphic);
-		board.paint(graphic);
+		paintHighlights(graphic);
+		paintPieces(graphic, board.getWhitePieces());
+		paintPieces(graphic, board.getBlackPieces());
+		paintCapturedPieces(graphic, board.getCapturedPieces(true));
+		paintCapturedPieces(graphic, board.getCapturedPieces(false));
+	}
+
+	/**
+	 * Outlines the selected space in green and the destinations of the
+	 * possible moves in red if they are taking moves and blue otherwise.
+	 * 
+	 * @param graphic The graphics context in which to draw. Must not be null.
+	 */
+	private void paintHighlights(Graphics graphic) {
+		Graphics2D g2 = (Graphics2D) graphic;
+		float thickness = 2;
+		Stroke oldStroke = g2.getStroke();
+		g2.setStroke(new BasicStroke(thickness));
+
+		if (possibleMoves != null) {
+			for (Move move : possibleMoves) {
+				graphic.setColor(move.isCapture() ? Color.RED : Color.BLUE);
+				outlineSpace(graphic, move.getDestination());
+			}
+		}
+		if (selectedSpace != null) {
+			graphic.setColor(Color.GREEN);
+			outlineSpace(graphic, selectedSpace);
+		}
+
+		g2.setStroke(oldStroke);
+	}
+
+	/**
+	 * Draws an outline around the given space in the current color.
+	 * 
+	 * @param graphic The graphics context in which to draw. Must not be null.
+	 * @param space The space to outline. Must not be null.
+	 */
+	private void outlineSpace(Graphics graphic, Space space) {
+		graphic.drawRect(space.getCol() * Game.SPACE_SIDE_LENGTH,
+				space.getRow() * Game.SPACE_SIDE_LENGTH + HUD_BAR_HEIGHT, Game.SPACE_SIDE_LENGTH,
+				Game.SPACE_SIDE_LENGTH);
+	}
+
+	/**
+	 * Paints the given active pieces on the board.
+	 * 
+	 * @param graphic The graphics context in which to draw. Must not be null.
+	 * @param pieces The pieces to draw. Must not be null.
+	 */
+	private void paintPieces(Graphics graphic, ArrayList<Piece> pieces) {
+		for (Piece piece : pieces) {
+			paintActivePiece(graphic, piece);
+		}
+	}
+
+	/**
+	 * Paints the given captured pieces in a row in the HUD bar of their
+	 * color.
+	 * 
+	 * @param graphic The graphics context in which to draw. Must not be null.
+	 * @param capturedPieces The captured pieces of one color. Must not be null.
+	 */
+	private void paintCapturedPieces(Graphics graphic, ArrayList<Piece> capturedPieces) {
+		for (int i = 0; i < capturedPieces.size(); i++) {
+			paintCapturedPiece(graphic, capturedPieces.get(i), i);
+		}
+	}
+
+	/**
+	 * Paints a captured piece in the HUD bar of its color. Uses the
+	 * lostPiecesDrawn argument to find the horizontal position in which to
+	 * draw the piece.
+	 * 
+	 * @param graphic The graphics context to draw in. Must not be null.
+	 * @param piece The captured piece. Must not be null.
+	 * @param lostPiecesDrawn The number of captured pieces already drawn in
+	 * 					      the piece's HUD bar. Must be non-negative.
+	 */
+	private void paintCapturedPiece(Graphics graphic, Piece piece, int lostPiecesDrawn) {
+		int yPos = piece.isWhite() ? LOST_PIECE_Y_WHITE : LOST_PIECE_Y_BLACK;
+		graphic.drawImage(getCapturedImage(piece.getType(), piece.isWhite()),
+				          LOST_PIECE_START_X + LOST_PIECE_X_DIFFERENCE * lostPiecesDrawn,
+				          yPos,
+				          null);
+	}
+
+	/**
+	 * Paints an active piece centered in its space on the board.
+	 * 
+	 * @param graphic The graphics context in which to draw the piece. Must not be null.
+	 * @param piece The active piece. Must not be null.
+	 */
+	private void paintActivePiece(Graphics graphic, Piece piece) {
+		BufferedImage image = getActiveImage(piece.getType(), piece.isWhite());
+		int width = image.getWidth(null);
+		int height = image.getHeight(null);
+		int x = (piece.getCol() * Game.SPACE_SIDE_LENGTH) + (Game.SPACE_SIDE_LENGTH - width) / 2;
+		int y = (piece.getRow() * Game.SPACE_SIDE_LENGTH) + (Game.SPACE_SIDE_LENGTH - height) / 2;
+		graphic.drawImage(image, x, y + HUD_BAR_HEIGHT, null);
 	}
 
 	/**
@@ -1,3 +1,5 @@
+package chess.ui;
+
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 
@@ -0,0 +1,126 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+/**
+ * Checks that Board reads back the FEN strings it writes, and rejects FEN
+ * strings whose pieces cannot be a position of a game.
+ */
+public class FenTest {
+
+	@Test
+	public void suitePositionsRoundTrip() {
+		for (String fen : Perft.FENS) {
+			Board board = new Board(fen);
+			assertEquals(fen, board.toFen());
+			assertRoundTrips(board);
+		}
+	}
+
+	@Test
+	public void positionsAfterMovesRoundTrip() {
+		// two plies reach every double pawn push, and so en passant squares
+		for (String fen : Perft.FENS) {
+			Board board = new Board(fen);
+			int[] moves = new int[Board.MAX_MOVES];
+			int[] replies = new int[Board.MAX_MOVES];
+			int count = board.generateLegalMoves(board.isWhiteToMove(), moves);
+			for (int i = 0; i < count; i++) {
+				board.makeMove(moves[i]);
+				assertRoundTrips(board);
+				int replyCount = board.generateLegalMoves(board.isWhiteToMove(), replies);
+				for (int j = 0; j < replyCount; j++) {
+					board.makeMove(replies[j]);
+					assertRoundTrips(board);
+					board.undoMove(replies[j]);
+				}
+				board.undoMove(moves[i]);
+			}
+		}
+	}
+
+	@Test
+	public void setFenReusesBoard() {
+		Board board = new Board(Perft.FENS[1]);
+		for (String fen : Perft.FENS) {
+			board.setFen(fen);
+			assertEquals(fen, board.toFen());
+			assertEquals(board.computeHash(), board.getHash(), fen);
+		}
+	}
+
+	@Test
+	public void rejectsMalformedFields() {
+		assertRejected("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1");
+		assertRejected("rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+		assertRejected("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1");
+		assertRejected("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1");
+		assertRejected("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq z9 0 1");
+		assertRejected("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra");
+	}
+
+	@Test
+	public void rejectsWrongKingCount() {
+		assertRejected("8/8/8/8/8/8/8/4K3 w - - 0 1");
+		assertRejected("4k3/8/8/8/8/8/8/8 w - - 0 1");
+		assertRejected("4k3/8/8/8/8/8/8/3KK3 w - - 0 1");
+		assertRejected("3kk3/8/8/8/8/8/8/4K3 w - - 0 1");
+	}
+
+	@Test
+	public void rejectsPawnsOnBackRanks() {
+		assertRejected("P3k3/8/8/8/8/8/8/4K3 w - - 0 1");
+		assertRejected("4k3/8/8/8/8/8/8/p3K3 w - - 0 1");
+		assertRejected("4k2p/8/8/8/8/8/8/4K3 b - - 0 1");
+		assertRejected("4k3/8/8/8/8/8/8/4K2P b - - 0 1");
+	}
+
+	@Test
+	public void rejectsCastlingRightsWithoutKingAndRook() {
+		assertRejected("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBN1 w KQkq - 0 1");
+		assertRejected("r3k2r/8/8/8/8/8/8/R3K3 w Kkq - 0 1");
+		assertRejected("r3k2r/8/8/8/8/8/8/R4K1R w KQ - 0 1");
+		assertRejected("1r2k2r/8/8/8/8/8/8/R3K2R w q - 0 1");
+		new Board("r3k2r/8/8/8/8/8/8/R3K3 w Qkq - 0 1");
+	}
+
+	@Test
+	public void rejectsImpossibleEnPassantSquares() {
+		// the side to move would have made the double push itself
+		assertRejected("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e3 0 1");
+		// no pawn right past the square
+		assertRejected("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq d3 0 1");
+		// the pawn's starting square is occupied
+		assertRejected("rnbqkbnr/pppppppp/8/3p4/8/8/PPPPPPPP/RNBQKBNR w KQkq d6 0 2");
+		// the wrong rank
+		assertRejected("rnbqkbnr/ppp1pppp/8/3p4/8/8/PPPPPPPP/RNBQKBNR w KQkq d5 0 2");
+		new Board("rnbqkbnr/ppp1pppp/8/3p4/8/8/PPPPPPPP/RNBQKBNR w KQkq d6 0 2");
+	}
+
+	/**
+	 * Helper method that checks that the FEN of the given board loads into a
+	 * board with the same FEN and hash.
+	 */
+	private static void assertRoundTrips(Board board) {
+		String fen = board.toFen();
+		Board copy = new Board(fen);
+		assertEquals(fen, copy.toFen());
+		assertEquals(board.getHash(), copy.getHash(), fen);
+	}
+
+	/**
+	 * Helper method that checks that the given FEN string is rejected.
+	 */
+	private static void assertRejected(final String fen) {
+		assertThrows(IllegalArgumentException.class, new Executable() {
+			@Override
+			public void execute() {
+				new Board(fen);
+			}
+		}, fen);
+	}
+}
@@ -0,0 +1,52 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the move generator against the known perft counts of the standard
+ * position suite (see Perft).
+ */
+public class PerftTest {
+
+	// deep enough to reach castling, en passant and promotions in every
+	// position, and shallow enough to run in a few seconds
+	private static final int MAX_DEPTH = 4;
+
+	@Test
+	public void suiteCountsMatch() {
+		for (int i = 0; i < Perft.FENS.length; i++) {
+			Board board = new Board(Perft.FENS[i]);
+			int depthLimit = Math.min(MAX_DEPTH, Perft.EXPECTED_COUNTS[i].length);
+			for (int depth = 1; depth <= depthLimit; depth++) {
+				assertEquals(Perft.EXPECTED_COUNTS[i][depth - 1], board.perft(depth),
+						Perft.NAMES[i] + " at depth " + depth);
+			}
+		}
+	}
+
+	@Test
+	public void divideAddsUpToPerft() {
+		for (String fen : Perft.FENS) {
+			Board board = new Board(fen);
+			long total = 0;
+			for (long nodes : board.divide(3).values()) {
+				total += nodes;
+			}
+			assertEquals(board.perft(3), total, fen);
+		}
+	}
+
+	@Test
+	public void perftLeavesBoardUnchanged() {
+		for (String fen : Perft.FENS) {
+			Board board = new Board(fen);
+			long hash = board.getHash();
+			String before = board.toFen();
+			board.perft(3);
+			assertEquals(hash, board.getHash(), fen);
+			assertEquals(before, board.toFen(), fen);
+		}
+	}
+}
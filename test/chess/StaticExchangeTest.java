@@ -0,0 +1,91 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks Board.staticExchangeEvaluation() against exchanges whose outcome is
+ * known, in pawns (see Piece.PieceType.getValue()).
+ */
+public class StaticExchangeTest {
+
+	@Test
+	public void undefendedCapture() {
+		assertExchange("4k3/8/8/3n4/4P3/8/8/4K3 w - - 0 1", "e4d5", 3);
+		assertExchange("4k3/8/8/3r4/8/8/8/3QK3 w - - 0 1", "d1d5", 5);
+	}
+
+	@Test
+	public void pawnDefendedCapture() {
+		assertExchange("4k3/8/2p5/3n4/4P3/8/8/4K3 w - - 0 1", "e4d5", 2);
+		assertExchange("4k3/8/2p5/3n4/8/8/8/3QK3 w - - 0 1", "d1d5", -6);
+	}
+
+	@Test
+	public void equalTrade() {
+		assertExchange("4k3/8/2p5/3p4/4P3/8/8/4K3 w - - 0 1", "e4d5", 0);
+	}
+
+	@Test
+	public void xRayBehindSlider() {
+		// the rook behind the capturing rook wins the exchange
+		assertExchange("4r1k1/8/8/4p3/8/8/4R3/K3R3 w - - 0 1", "e2e5", 1);
+		// until a queen stands behind the defending rook
+		assertExchange("4q1k1/4r3/8/4p3/8/8/4R3/K3R3 w - - 0 1", "e2e5", -4);
+		// a bishop behind a capturing pawn retakes through it
+		assertExchange("4k3/8/5p2/4n3/3P4/2B5/8/4K3 w - - 0 1", "d4e5", 3);
+	}
+
+	@Test
+	public void kingOnlyCapturesUndefendedPiece() {
+		assertExchange("4k3/4p3/8/8/8/Q7/8/K7 w - - 0 1", "a3e7", -8);
+		assertExchange("4k3/4p3/8/8/8/Q7/8/K3R3 w - - 0 1", "a3e7", 1);
+	}
+
+	@Test
+	public void quietMoves() {
+		assertExchange("4k3/8/8/8/8/8/8/K2N4 w - - 0 1", "d1e3", 0);
+		assertExchange("4k3/8/8/3p4/8/8/8/K1N5 w - - 0 1", "c1e2", 0);
+		assertExchange("4k3/8/8/3p4/8/8/8/K3N3 w - - 0 1", "e1c2", 0);
+		assertExchange("4k3/8/8/3p4/8/8/8/K1N5 w - - 0 1", "c1b3", 0);
+		assertExchange("4k3/8/3p4/8/8/8/8/K1N5 w - - 0 1", "c1b3", 0);
+		assertExchange("4k3/8/8/3p4/8/1N6/8/K7 w - - 0 1", "b3c5", 0);
+		assertExchange("4k3/8/3p4/8/8/1N6/8/K7 w - - 0 1", "b3c5", -3);
+	}
+
+	@Test
+	public void promotion() {
+		// a promotion no one can take wins the difference
+		assertExchange("6k1/4P3/8/8/8/8/8/K7 w - - 0 1", "e7e8q", 8);
+		// a taken queen only loses the pawn
+		assertExchange("3r2k1/4P3/8/8/8/8/8/K7 w - - 0 1", "e7e8q", -1);
+		// capturing while promoting adds the captured piece
+		assertExchange("3r2k1/4P3/8/8/8/8/8/K7 w - - 0 1", "e7d8q", 13);
+		assertExchange("3r2k1/4P3/8/8/8/8/8/K7 w - - 0 1", "e7d8n", 7);
+	}
+
+	@Test
+	public void enPassant() {
+		assertExchange("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6", 1);
+		assertExchange("4k3/2p5/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6", 0);
+	}
+
+	/**
+	 * Helper method that checks the static exchange evaluation of the legal
+	 * move with the given name in the given position.
+	 */
+	private static void assertExchange(String fen, String moveName, int expected) {
+		Board board = new Board(fen);
+		int[] moves = new int[Board.MAX_MOVES];
+		int count = board.generateLegalMoves(board.isWhiteToMove(), moves);
+		for (int i = 0; i < count; i++) {
+			if (PackedMove.toString(moves[i]).equals(moveName)) {
+				assertEquals(expected, board.staticExchangeEvaluation(moves[i]), fen + " " + moveName);
+				return;
+			}
+		}
+		fail(moveName + " is not a legal move in " + fen);
+	}
+}
@@ -0,0 +1,133 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+/**
+ * Checks storing and probing TranspositionTable entries, the replacement
+ * rules within a bucket, and that a key that only shares a bucket with a
+ * stored entry is not mistaken for it.
+ */
+public class TranspositionTableTest {
+
+	private static final long KEY = 0x123456789ABCDEF0L;
+	// keys with the same low bits as KEY, which land in the same bucket
+	private static final long SAME_BUCKET_KEY = KEY ^ (1L << 50);
+	private static final long OTHER_SAME_BUCKET_KEY = KEY ^ (1L << 51);
+
+	private TranspositionTable table;
+	private int move;
+	private int otherMove;
+
+	@BeforeEach
+	public void setUp() {
+		table = new TranspositionTable(1);
+		int[] moves = new int[Board.MAX_MOVES];
+		Board board = new Board();
+		board.generateLegalMoves(true, moves);
+		move = moves[0];
+		otherMove = moves[1];
+	}
+
+	@Test
+	public void probeReturnsStoredEntry() {
+		table.store(KEY, move, -1234, 7, TranspositionTable.LOWER);
+		long entry = table.probe(KEY);
+		assertNotEquals(0, entry);
+		assertEquals(move, TranspositionTable.getMove(entry));
+		assertEquals(-1234, TranspositionTable.getScore(entry));
+		assertEquals(7, TranspositionTable.getDepth(entry));
+		assertEquals(TranspositionTable.LOWER, TranspositionTable.getBound(entry));
+	}
+
+	@Test
+	public void scoresKeepTheirSign() {
+		table.store(KEY, move, Search.INFINITY, 1, TranspositionTable.EXACT);
+		assertEquals(Search.INFINITY, TranspositionTable.getScore(table.probe(KEY)));
+		table.store(KEY, move, -Search.INFINITY, 1, TranspositionTable.EXACT);
+		assertEquals(-Search.INFINITY, TranspositionTable.getScore(table.probe(KEY)));
+	}
+
+	@Test
+	public void emptyTableMisses() {
+		assertEquals(0, table.probe(KEY));
+		assertEquals(0, table.probe(0));
+	}
+
+	@Test
+	public void keyCollisionInBucketIsRejected() {
+		table.store(KEY, move, 50, 5, TranspositionTable.EXACT);
+		assertEquals(0, table.probe(SAME_BUCKET_KEY));
+		assertEquals(0, table.probe(OTHER_SAME_BUCKET_KEY));
+
+		// both entries of the bucket hold their own positions
+		table.store(SAME_BUCKET_KEY, otherMove, -50, 4, TranspositionTable.UPPER);
+		assertEquals(move, TranspositionTable.getMove(table.probe(KEY)));
+		assertEquals(otherMove, TranspositionTable.getMove(table.probe(SAME_BUCKET_KEY)));
+	}
+
+	@Test
+	public void fullBucketReplacesShallowestEntry() {
+		table.store(KEY, move, 0, 9, TranspositionTable.EXACT);
+		table.store(SAME_BUCKET_KEY, move, 0, 2, TranspositionTable.EXACT);
+		table.store(OTHER_SAME_BUCKET_KEY, otherMove, 0, 5, TranspositionTable.EXACT);
+		assertEquals(9, TranspositionTable.getDepth(table.probe(KEY)));
+		assertEquals(0, table.probe(SAME_BUCKET_KEY));
+		assertEquals(5, TranspositionTable.getDepth(table.probe(OTHER_SAME_BUCKET_KEY)));
+	}
+
+	@Test
+	public void olderEntriesAreReplacedFirst() {
+		table.store(KEY, move, 0, 9, TranspositionTable.EXACT);
+		table.newSearch();
+		table.newSearch();
+		table.store(SAME_BUCKET_KEY, move, 0, 2, TranspositionTable.EXACT);
+		table.store(OTHER_SAME_BUCKET_KEY, otherMove, 0, 5, TranspositionTable.EXACT);
+		assertEquals(0, table.probe(KEY));
+		assertEquals(2, TranspositionTable.getDepth(table.probe(SAME_BUCKET_KEY)));
+	}
+
+	@Test
+	public void shallowerBoundDoesNotReplaceDeeperResult() {
+		table.store(KEY, move, 100, 10, TranspositionTable.LOWER);
+		table.store(KEY, otherMove, 5, 2, TranspositionTable.UPPER);
+		long entry = table.probe(KEY);
+		assertEquals(10, TranspositionTable.getDepth(entry));
+		assertEquals(move, TranspositionTable.getMove(entry));
+
+		// an exact result always replaces it
+		table.store(KEY, otherMove, 5, 2, TranspositionTable.EXACT);
+		assertEquals(2, TranspositionTable.getDepth(table.probe(KEY)));
+	}
+
+	@Test
+	public void nullMoveKeepsStoredMove() {
+		table.store(KEY, move, 0, 3, TranspositionTable.LOWER);
+		table.store(KEY, PackedMove.NULL_MOVE, 20, 4, TranspositionTable.UPPER);
+		long entry = table.probe(KEY);
+		assertEquals(move, TranspositionTable.getMove(entry));
+		assertEquals(20, TranspositionTable.getScore(entry));
+	}
+
+	@Test
+	public void clearEmptiesTable() {
+		table.store(KEY, move, 0, 3, TranspositionTable.EXACT);
+		table.clear();
+		assertEquals(0, table.probe(KEY));
+	}
+
+	@Test
+	public void rejectsInvalidSize() {
+		assertThrows(IllegalArgumentException.class, new Executable() {
+			@Override
+			public void execute() {
+				new TranspositionTable(0);
+			}
+		});
+	}
+}
@@ -0,0 +1,60 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the Zobrist hash that Board keeps up to date as moves are made and
+ * undone against the hash computed from scratch, over the move trees of the
+ * perft suite positions.
+ */
+public class ZobristHashTest {
+
+	// the depth of the walk from each position
+	private static final int DEPTH = 3;
+
+	@Test
+	public void incrementalHashMatchesComputedHash() {
+		for (int i = 0; i < Perft.FENS.length; i++) {
+			Board board = new Board(Perft.FENS[i]);
+			assertEquals(board.computeHash(), board.getHash(), Perft.NAMES[i]);
+			walk(board, DEPTH, Perft.NAMES[i]);
+		}
+	}
+
+	@Test
+	public void undoRestoresHash() {
+		for (String fen : Perft.FENS) {
+			Board board = new Board(fen);
+			long hash = board.getHash();
+			int[] moves = new int[Board.MAX_MOVES];
+			int count = board.generateLegalMoves(board.isWhiteToMove(), moves);
+			for (int i = 0; i < count; i++) {
+				board.makeMove(moves[i]);
+				board.undoMove(moves[i]);
+				assertEquals(hash, board.getHash(), fen + " " + PackedMove.toString(moves[i]));
+			}
+		}
+	}
+
+	/**
+	 * Helper method that makes and undoes every move of the tree below the
+	 * current position to the given depth, checking the hash after each.
+	 */
+	private static void walk(Board board, int depth, String name) {
+		if (depth == 0) {
+			return;
+		}
+		int[] moves = new int[Board.MAX_MOVES];
+		int count = board.generateLegalMoves(board.isWhiteToMove(), moves);
+		for (int i = 0; i < count; i++) {
+			String line = name + " " + PackedMove.toString(moves[i]);
+			board.makeMove(moves[i]);
+			assertEquals(board.computeHash(), board.getHash(), "after " + line);
+			walk(board, depth - 1, line);
+			board.undoMove(moves[i]);
+			assertEquals(board.computeHash(), board.getHash(), "after undoing " + line);
+		}
+	}
+}